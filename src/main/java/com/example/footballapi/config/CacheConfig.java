@@ -1,47 +1,407 @@
 package com.example.footballapi.config;
 
+import com.example.footballapi.service.ApiFootballClient;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Caffeine caches in refresh-ahead mode.
+ *
+ * An entry older than its TTL ({@code app.features.cache-ttl-seconds.*}) is still served immediately
+ * while a reload runs on a bounded background executor. If that reload fails the last good value keeps
+ * being served until it reaches the hard max-staleness ({@code app.features.cache-max-staleness-seconds.*}),
+ * or indefinitely when {@code app.features.prefer-cache-over-live} is enabled. Every write, including
+ * background reloads, is published as a {@link CacheEntryUpdatedEvent}, and every removal, including
+ * evictions for size or age, as a {@link CacheEntryRemovedEvent}. Entries are aged from when their
+ * value was written, which for a value restored from a snapshot is before it reached the cache.
+ *
+ * When a {@link SharedCacheStore} is configured ({@code app.cache.l2.type}), these caches are the local
+ * tier (L1) in front of it; see {@link SharedCacheTier}.
+ */
 @Configuration
 @EnableCaching // Enables Spring's annotation-driven cache management capability
 public class CacheConfig {
     public static final String COUNTRIES_CACHE = "countriesCache";
+
+    // Max age of entries with prefer-cache-over-live: finite, so that the remaining expiry still tells the age.
+    private static final Duration NEVER = Duration.ofDays(365L * 100);
+
     @Value("${app.features.cache-ttl-seconds.leagues:86400}") // Default to 24 hours if not set
     private long leaguesCacheTtlSeconds;
 
     @Value("${app.features.cache-ttl-seconds.standings:3600}") // Default to 1 hour if not set
     private long standingsCacheTtlSeconds;
 
+    @Value("${app.features.cache-max-staleness-seconds.leagues:604800}") // Default to 7 days if not set
+    private long leaguesMaxStalenessSeconds;
+
+    @Value("${app.features.cache-max-staleness-seconds.standings:86400}") // Default to 24 hours if not set
+    private long standingsMaxStalenessSeconds;
+
+    @Value("${app.features.prefer-cache-over-live:false}")
+    private boolean preferCacheOverLive;
+
+    @Value("${app.features.cache-refresh-threads:4}")
+    private int refreshThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     public static final String LEAGUES_CACHE = "leagues";
     public static final String STANDINGS_BY_LEAGUE_CACHE = "standingsByLeague";
 
+    private ExecutorService refreshExecutor;
+
+    /**
+     * Whether {@code value} is still what {@code cacheName} holds for {@code key}. Structures derived from cached
+     * values check this before keeping what they built, so that nothing built from an entry evicted in the
+     * meantime is kept after its {@link CacheEntryRemovedEvent}.
+     */
+    public static boolean isCurrent(CacheManager cacheManager, String cacheName, Object key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof RefreshAheadCaffeineCache refreshAhead) {
+            return refreshAhead.holds(key, value);
+        }
+        Cache.ValueWrapper current = cache != null ? cache.get(key) : null;
+        return current != null && current.get() == value;
+    }
+
     @Bean
     @Primary // Make this the default CacheManager
-    public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CacheManager caffeineCacheManager(ApiFootballClient apiClient, ApplicationEventPublisher events,
+                                             UpstreamRateLimiter rateLimiter, SharedCacheTier sharedTier) {
+        // Rejected refreshes are skipped and retried on a later read
+        refreshExecutor = TaskExecutors.bounded("cache-refresh-", refreshThreads, 500, virtualThreads);
+
+        // Shared (L2) entries live as long as the local ones may be served.
+        Map<String, Duration> sharedTtls = new HashMap<>();
+        sharedTtls.put(COUNTRIES_CACHE, sharedTtl(leaguesCacheTtlSeconds, leaguesMaxStalenessSeconds));
+        sharedTtls.put(LEAGUES_CACHE, sharedTtl(leaguesCacheTtlSeconds, leaguesMaxStalenessSeconds));
+        sharedTtls.put(STANDINGS_BY_LEAGUE_CACHE, sharedTtl(standingsCacheTtlSeconds, standingsMaxStalenessSeconds));
+
+        // Refreshed values are installed through the Spring cache, which announces them
+        Map<String, UpstreamCacheLoader> loaders = new HashMap<>();
+        loaders.put(COUNTRIES_CACHE, new UpstreamCacheLoader(COUNTRIES_CACHE, key -> apiClient.fetchCountries(),
+                rateLimiter, sharedTier));
+        loaders.put(LEAGUES_CACHE, new UpstreamCacheLoader(LEAGUES_CACHE, key -> key instanceof String countryId
+                ? apiClient.fetchLeagues(countryId)
+                : apiClient.fetchAllLeagues(), rateLimiter, sharedTier));
+        loaders.put(STANDINGS_BY_LEAGUE_CACHE, new UpstreamCacheLoader(STANDINGS_BY_LEAGUE_CACHE,
+                key -> apiClient.fetchStandings((String) key), rateLimiter, sharedTier));
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (!loaders.containsKey(name)) {
+                    // Created on first use for a name not registered below: a plain cache, without refresh-ahead
+                    return super.adaptCaffeineCache(name, cache);
+                }
+                RefreshAheadCaffeineCache adapted = new RefreshAheadCaffeineCache(name, cache, isAllowNullValues(),
+                        events, sharedTier, sharedTtls.get(name), STANDINGS_BY_LEAGUE_CACHE.equals(name)
+                                ? maxAge(standingsCacheTtlSeconds, standingsMaxStalenessSeconds)
+                                : maxAge(leaguesCacheTtlSeconds, leaguesMaxStalenessSeconds));
+                loaders.get(name).attach(adapted);
+                return adapted;
+            }
+        };
 
         // Configure specific caches with different TTLs
+        // The country list changes about as rarely as the league lists, so it shares their TTL.
+        cacheManager.registerCustomCache(COUNTRIES_CACHE,
+                refreshAhead(COUNTRIES_CACHE, events, leaguesCacheTtlSeconds, leaguesMaxStalenessSeconds)
+                        .maximumSize(1) // Single entry: the full country list
+                        .build(loaders.get(COUNTRIES_CACHE)));
+
         cacheManager.registerCustomCache(LEAGUES_CACHE,
-                Caffeine.newBuilder()
-                        .expireAfterWrite(leaguesCacheTtlSeconds, TimeUnit.SECONDS)
+                refreshAhead(LEAGUES_CACHE, events, leaguesCacheTtlSeconds, leaguesMaxStalenessSeconds)
                         .maximumSize(100) // Max 100 entries for leagues cache
-                        .build());
+                        // Keyed by country_id, or SimpleKey.EMPTY for getAllLeagues()
+                        .build(loaders.get(LEAGUES_CACHE)));
 
         cacheManager.registerCustomCache(STANDINGS_BY_LEAGUE_CACHE,
-                Caffeine.newBuilder()
-                        .expireAfterWrite(standingsCacheTtlSeconds, TimeUnit.SECONDS)
+                refreshAhead(STANDINGS_BY_LEAGUE_CACHE, events, standingsCacheTtlSeconds, standingsMaxStalenessSeconds)
                         .maximumSize(200) // Max 200 entries for standings cache (e.g., different leagues)
-                        .build());
+                        .build(loaders.get(STANDINGS_BY_LEAGUE_CACHE)));
 
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    private Caffeine<Object, Object> refreshAhead(String name, ApplicationEventPublisher events, long ttlSeconds,
+                                                  long maxStalenessSeconds) {
+        return Caffeine.newBuilder()
+                .recordStats() // Bound to cache.gets/puts/evictions/load.duration by Spring Boot's cache metrics
+                .refreshAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                // Variable expiry, so that a value can be put with the age it already has
+                .expireAfter(expireAfterWrite(maxAge(ttlSeconds, maxStalenessSeconds)))
+                // Runs within the eviction, so it is announced before the key can be written again
+                .evictionListener((key, value, cause) -> events.publishEvent(new CacheEntryRemovedEvent(name, key)))
+                .executor(refreshExecutor);
+    }
+
+    private Duration maxAge(long ttlSeconds, long maxStalenessSeconds) {
+        return preferCacheOverLive ? NEVER : Duration.ofSeconds(Math.max(ttlSeconds, maxStalenessSeconds));
+    }
+
+    static Expiry<Object, Object> expireAfterWrite(Duration maxAge) {
+        long maxAgeNanos = maxAge.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                return maxAgeNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return maxAgeNanos;
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private Duration sharedTtl(long ttlSeconds, long maxStalenessSeconds) {
+        return preferCacheOverLive ? null : Duration.ofSeconds(Math.max(ttlSeconds, maxStalenessSeconds));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.l2", name = "type", havingValue = "in-process")
+    public SharedCacheStore inProcessSharedCacheStore(@Value("${app.cache.l2.name:default}") String name) {
+        return InProcessSharedCacheStore.named(name);
+    }
+
+    @PreDestroy
+    public void shutdownRefreshExecutor() {
+        refreshExecutor.shutdown();
+    }
+
+    /**
+     * Spring's CaffeineCache resolves reads on a LoadingCache through {@code get(key)}, which would
+     * load misses inside the cache and bypass the {@code @Cacheable} method and its {@code unless}
+     * rules. Reads here use {@code getIfPresent} instead: misses still fall through to the annotated
+     * method, while entries past their refresh point trigger the background reload.
+     *
+     * With a shared tier, a local miss is first looked up there, writes and evictions go to both tiers,
+     * and writes by other instances replace the local copy of a key held here.
+     *
+     * The age of an entry is that of its value: the remaining time of the variable expiry counts down from
+     * the max age. A value written before it got here (restored from a snapshot, or taken from the shared
+     * tier) is put with the expiry it has left, is refused when it has none, and is reloaded on the first
+     * read once it is past the TTL.
+     */
+    public static class RefreshAheadCaffeineCache extends CaffeineCache {
+
+        private final ApplicationEventPublisher events;
+        private final SharedCacheTier sharedTier;
+        private final Duration ttl;
+        private final Duration maxAge;
+
+        RefreshAheadCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                  boolean allowNullValues, ApplicationEventPublisher events,
+                                  SharedCacheTier sharedTier, Duration sharedTtl, Duration maxAge) {
+            super(name, cache, allowNullValues);
+            this.events = events;
+            this.sharedTier = sharedTier;
+            this.ttl = cache.policy().refreshAfterWrite().orElseThrow().getRefreshesAfter();
+            this.maxAge = maxAge;
+            sharedTier.register(name, sharedTtl, this::onRemoteChange);
+        }
+
+        /**
+         * The refresh interval (TTL) of the entries.
+         */
+        public Duration getRefreshesAfter() {
+            return ttl;
+        }
+
+        /**
+         * Whether {@code value} is the value held locally for {@code key}. Neither counts as a read nor
+         * triggers a refresh.
+         */
+        public boolean holds(Object key, Object value) {
+            return getNativeCache().policy().getIfPresentQuietly(key) == value;
+        }
+
+        /**
+         * How long ago the value held for {@code key} was written, if one is held.
+         */
+        public Optional<Duration> ageOf(Object key) {
+            return getNativeCache().policy().expireVariably()
+                    .flatMap(expiry -> expiry.getExpiresAfter(key))
+                    .map(maxAge::minus);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            long now = System.currentTimeMillis();
+            putLocal(key, value, now);
+            sharedTier.put(getName(), key, value, now);
+        }
+
+        /**
+         * A value already held by the shared tier (e.g. restored from a snapshot while another instance
+         * was running) wins over {@code value}.
+         */
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return putIfAbsent(key, value, System.currentTimeMillis());
+        }
+
+        /**
+         * Like {@link #putIfAbsent(Object, Object)} for a value written at {@code writtenAtMillis}, e.g. one
+         * restored from a snapshot. Nothing is put if it is already past the max age.
+         */
+        public ValueWrapper putIfAbsent(Object key, Object value, long writtenAtMillis) {
+            Object existing = getNativeCache().getIfPresent(key);
+            if (existing == null) {
+                SharedCacheTier.TimedValue shared = sharedTier.get(getName(), key);
+                if (shared != null && putLocalIfAbsent(key, shared.value(), shared.writtenAtMillis())) {
+                    return new SimpleValueWrapper(shared.value());
+                }
+                if (putLocalIfAbsent(key, value, writtenAtMillis)) {
+                    sharedTier.put(getName(), key, value, writtenAtMillis);
+                }
+            }
+            return toValueWrapper(existing);
+        }
+
+        @Override
+        public void evict(Object key) {
+            super.evict(key);
+            sharedTier.evict(getName(), key);
+            events.publishEvent(new CacheEntryRemovedEvent(getName(), key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = super.evictIfPresent(key);
+            sharedTier.evict(getName(), key);
+            if (present) {
+                events.publishEvent(new CacheEntryRemovedEvent(getName(), key));
+            }
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            sharedTier.clear(getName());
+            events.publishEvent(new CacheEntryRemovedEvent(getName(), null));
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean notEmpty = super.invalidate();
+            sharedTier.clear(getName());
+            events.publishEvent(new CacheEntryRemovedEvent(getName(), null));
+            return notEmpty;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            Object value = getNativeCache().getIfPresent(key);
+            if (value != null) {
+                refreshIfAged(key);
+            } else if (sharedTier.isEnabled()) {
+                SharedCacheTier.TimedValue shared = sharedTier.get(getName(), key);
+                if (shared != null && putLocalIfAbsent(key, shared.value(), shared.writtenAtMillis())) {
+                    value = shared.value();
+                    refreshIfAged(key);
+                } else {
+                    value = getNativeCache().getIfPresent(key);
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Installs the result of a background refresh, written at {@code writtenAtMillis} by this or another
+         * instance. Caffeine discards its own copy of the result, as the entry has changed while the refresh ran.
+         */
+        void putRefreshed(Object key, Object value, long writtenAtMillis) {
+            putLocal(key, value, writtenAtMillis);
+        }
+
+        private void putLocal(Object key, Object value, long writtenAtMillis) {
+            Duration remaining = remainingAge(writtenAtMillis);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return;
+            }
+            getNativeCache().policy().expireVariably().orElseThrow().put(key, toStoreValue(value), remaining);
+            events.publishEvent(new CacheEntryUpdatedEvent(getName(), key, value));
+        }
+
+        private boolean putLocalIfAbsent(Object key, Object value, long writtenAtMillis) {
+            Duration remaining = remainingAge(writtenAtMillis);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return false;
+            }
+            Object existing = getNativeCache().policy().expireVariably().orElseThrow()
+                    .putIfAbsent(key, toStoreValue(value), remaining);
+            if (existing != null) {
+                return false;
+            }
+            events.publishEvent(new CacheEntryUpdatedEvent(getName(), key, value));
+            return true;
+        }
+
+        private Duration remainingAge(long writtenAtMillis) {
+            return maxAge.minusMillis(Math.max(0, System.currentTimeMillis() - writtenAtMillis));
+        }
+
+        /**
+         * Starts the reload of an entry that is past the TTL by its age, but not yet by the time it has been
+         * held here (which is what triggers refresh-ahead).
+         */
+        private void refreshIfAged(Object key) {
+            Optional<Duration> heldFor = getNativeCache().policy().refreshAfterWrite().flatMap(refresh -> refresh.ageOf(key));
+            if (heldFor.isPresent() && heldFor.get().compareTo(ttl) < 0
+                    && ageOf(key).filter(age -> age.compareTo(ttl) >= 0).isPresent()) {
+                try {
+                    ((LoadingCache<Object, Object>) getNativeCache()).refresh(key);
+                } catch (RejectedExecutionException e) {
+                    // Refresh executor saturated: serve the held value, a later read retries
+                }
+            }
+        }
+
+        private void onRemoteChange(Object key, boolean evicted) {
+            if (key == null) {
+                getNativeCache().invalidateAll();
+                events.publishEvent(new CacheEntryRemovedEvent(getName(), null));
+            } else if (evicted) {
+                getNativeCache().invalidate(key);
+                events.publishEvent(new CacheEntryRemovedEvent(getName(), key));
+            } else if (getNativeCache().asMap().containsKey(key)) {
+                SharedCacheTier.TimedValue shared = sharedTier.get(getName(), key);
+                if (shared != null) {
+                    putLocal(key, shared.value(), shared.writtenAtMillis());
+                }
+            }
+        }
+    }
+}
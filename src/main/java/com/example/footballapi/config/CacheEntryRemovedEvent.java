@@ -0,0 +1,9 @@
+package com.example.footballapi.config;
+
+/**
+ * Published after an entry has left one of the caches from {@link CacheConfig}: evicted for size or age,
+ * evicted explicitly, or removed by another instance through the shared tier. The {@code key} is null
+ * when the whole cache was cleared. Listeners run on the removing thread and must not block.
+ */
+public record CacheEntryRemovedEvent(String cacheName, Object key) {
+}
@@ -0,0 +1,9 @@
+package com.example.footballapi.config;
+
+/**
+ * Published after a value has been written to one of the caches from {@link CacheConfig}: by a
+ * {@code @Cacheable} miss, a {@code @CachePut}, a snapshot restore or a background refresh.
+ * Listeners run on the writing thread and must not block.
+ */
+public record CacheEntryUpdatedEvent(String cacheName, Object key, Object value) {
+}
@@ -0,0 +1,171 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.model.StandingsTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of the cached values: country and league lists as their records, standings as
+ * table metadata followed by their columns. Used by the on-disk snapshot and the shared cache tier;
+ * which kind of value to expect follows from the cache name.
+ */
+public final class CacheValueCodec {
+
+    private CacheValueCodec() {
+    }
+
+    public static byte[] encode(String cacheName, Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try {
+            write(new DataOutputStream(bytes), cacheName, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Object decode(String cacheName, byte[] bytes) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes)), cacheName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(DataOutputStream out, String cacheName, Object value) throws IOException {
+        if (value instanceof StandingsTable table) {
+            writeTable(out, table);
+            return;
+        }
+        List<?> records = (List<?>) value;
+        out.writeInt(records.size());
+        for (Object record : records) {
+            if (CacheConfig.COUNTRIES_CACHE.equals(cacheName)) {
+                writeCountry(out, (CountryDTO) record);
+            } else {
+                writeLeague(out, (LeagueDTO) record);
+            }
+        }
+    }
+
+    /**
+     * Reads a value written by {@link #write}; {@code in} must read from memory ({@link #readCount}).
+     */
+    public static Object read(DataInputStream in, String cacheName) throws IOException {
+        if (CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(cacheName)) {
+            return readTable(in);
+        }
+        int recordCount = readCount(in, CacheConfig.COUNTRIES_CACHE.equals(cacheName) ? 2 : 4);
+        List<Object> records = new ArrayList<>(recordCount);
+        for (int j = 0; j < recordCount; j++) {
+            records.add(CacheConfig.COUNTRIES_CACHE.equals(cacheName) ? readCountry(in) : readLeague(in));
+        }
+        return List.copyOf(records);
+    }
+
+    private static void writeCountry(DataOutputStream out, CountryDTO country) throws IOException {
+        writeString(out, country.getCountryId());
+        writeString(out, country.getCountryName());
+    }
+
+    private static CountryDTO readCountry(DataInputStream in) throws IOException {
+        CountryDTO country = new CountryDTO();
+        country.setCountryId(readString(in));
+        country.setCountryName(readString(in));
+        return country;
+    }
+
+    private static void writeLeague(DataOutputStream out, LeagueDTO league) throws IOException {
+        writeString(out, league.getLeagueId());
+        writeString(out, league.getLeagueName());
+        writeString(out, league.getCountryId());
+        writeString(out, league.getCountryName());
+    }
+
+    private static LeagueDTO readLeague(DataInputStream in) throws IOException {
+        LeagueDTO league = new LeagueDTO();
+        league.setLeagueId(readString(in));
+        league.setLeagueName(readString(in));
+        league.setCountryId(readString(in));
+        league.setCountryName(readString(in));
+        return league;
+    }
+
+    private static void writeTable(DataOutputStream out, StandingsTable table) throws IOException {
+        writeString(out, table.getCountryName());
+        writeString(out, table.getLeagueId());
+        writeString(out, table.getLeagueName());
+        out.writeInt(table.size());
+        for (int row = 0; row < table.size(); row++) {
+            writeString(out, table.teamId(row));
+            writeString(out, table.teamName(row));
+        }
+        for (int cell = 0; cell < StandingsTable.Builder.NUMERIC_CELLS; cell++) {
+            for (int row = 0; row < table.size(); row++) {
+                out.writeInt(table.cell(row, cell));
+            }
+        }
+    }
+
+    private static StandingsTable readTable(DataInputStream in) throws IOException {
+        String countryName = readString(in);
+        String leagueId = readString(in);
+        String leagueName = readString(in);
+        // Two null flags and the numeric cells at least per row
+        int size = readCount(in, 2 + StandingsTable.Builder.NUMERIC_CELLS * Integer.BYTES);
+        String[] teamIds = new String[size];
+        String[] teamNames = new String[size];
+        for (int row = 0; row < size; row++) {
+            teamIds[row] = readString(in);
+            teamNames[row] = readString(in);
+        }
+        int[][] columns = new int[StandingsTable.Builder.NUMERIC_CELLS][size];
+        for (int[] column : columns) {
+            for (int row = 0; row < size; row++) {
+                column[row] = in.readInt();
+            }
+        }
+        StandingsTable.Builder builder = StandingsTable.builder().metadata(countryName, leagueId, leagueName);
+        int[] cells = new int[StandingsTable.Builder.NUMERIC_CELLS];
+        for (int row = 0; row < size; row++) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = columns[cell][row];
+            }
+            builder.addRow(teamIds[row], teamNames[row], cells);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads a record or row count and rejects it, before anything is allocated for it, if it is negative or
+     * more items than the rest of {@code in} can hold at {@code minBytes} each. {@code in} must read from memory,
+     * so that {@link DataInputStream#available()} is what is left.
+     */
+    public static int readCount(DataInputStream in, int minBytes) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || (long) count * minBytes > in.available()) {
+            throw new IOException("Invalid count " + count + " with " + in.available() + " bytes left");
+        }
+        return count;
+    }
+
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.footballapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures how long after JVM start the first API request was answered, as
+ * {@code application.first-request.time} next to Spring Boot's {@code application.ready.time}. This is
+ * what a new instance costs before it takes load: startup plus whatever the first request still had to
+ * load. Requests outside {@code /api/} (health probes, metrics scrapes) do not count.
+ */
+@Component
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean served = new AtomicBoolean();
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return served.get() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+        if (!request.isAsyncStarted()) {
+            record();
+            return;
+        }
+        // Reactive handlers answer after the filter chain has returned.
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                record();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    private void record() {
+        if (served.compareAndSet(false, true)) {
+            long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+            TimeGauge.builder("application.first-request.time", () -> uptimeMs, TimeUnit.MILLISECONDS)
+                    .description("Time taken from JVM start until the first API request was answered")
+                    .register(meterRegistry);
+            logger.info("First API request answered {} ms after JVM start", uptimeMs);
+        }
+    }
+}
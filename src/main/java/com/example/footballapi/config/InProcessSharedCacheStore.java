@@ -0,0 +1,95 @@
+package com.example.footballapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedCacheStore} held in memory. Every application context in the JVM that asks for the same
+ * {@code app.cache.l2.name} gets the same instance, so several instances of the service started in one
+ * process (tests, benchmarks) share their second-level cache as separate deployments would share an
+ * external one. Changes are delivered synchronously on the publishing thread.
+ */
+public class InProcessSharedCacheStore implements SharedCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessSharedCacheStore.class);
+
+    private static final Map<String, InProcessSharedCacheStore> STORES = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Stored> entries = new ConcurrentHashMap<>();
+    private final Map<List<String>, Lease> leases = new ConcurrentHashMap<>();
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+
+    public static InProcessSharedCacheStore named(String name) {
+        return STORES.computeIfAbsent(name, n -> new InProcessSharedCacheStore());
+    }
+
+    @Override
+    public Entry get(String cacheName, String key) {
+        List<String> id = List.of(cacheName, key);
+        Stored stored = entries.get(id);
+        if (stored == null) {
+            return null;
+        }
+        if (stored.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(id, stored);
+            return null;
+        }
+        return stored.entry();
+    }
+
+    @Override
+    public void put(String cacheName, String key, byte[] value, long writtenAtMillis, Duration ttl) {
+        long expiresAt = ttl != null ? writtenAtMillis + ttl.toMillis() : Long.MAX_VALUE;
+        entries.put(List.of(cacheName, key), new Stored(new Entry(value, writtenAtMillis), expiresAt));
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        entries.remove(List.of(cacheName, key));
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        entries.keySet().removeIf(id -> id.get(0).equals(cacheName));
+    }
+
+    @Override
+    public boolean tryLease(String cacheName, String key, String owner, Duration lease) {
+        long now = System.currentTimeMillis();
+        Lease taken = leases.compute(List.of(cacheName, key), (id, current) ->
+                current == null || current.expiresAtMillis() <= now || current.owner().equals(owner)
+                        ? new Lease(owner, now + lease.toMillis())
+                        : current);
+        return taken.owner().equals(owner);
+    }
+
+    @Override
+    public void publish(Change change) {
+        for (Consumer<Change> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                logger.warn("Shared cache change listener failed for {}: {}", change, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public AutoCloseable subscribe(Consumer<Change> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    private record Stored(Entry entry, long expiresAtMillis) {
+    }
+
+    private record Lease(String owner, long expiresAtMillis) {
+    }
+}
@@ -1,27 +1,163 @@
 package com.example.footballapi.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
 
 @Configuration
 public class RestTemplateConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(RestTemplateConfig.class);
+
+    // simple = JDK HttpURLConnection (previous behaviour), pooled = Apache HttpClient 5 connection pool,
+    // http2 = JDK HttpClient negotiating HTTP/2 with its own multiplexed connection reuse.
+    @Value("${apifootball.http.client:pooled}")
+    private String clientMode;
+
+    @Value("${apifootball.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${apifootball.http.max-connections-total:50}")
+    private int maxConnectionsTotal;
+
+    @Value("${apifootball.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${apifootball.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${apifootball.http.response-timeout-ms:10000}")
+    private long responseTimeoutMs;
+
+    @Value("${apifootball.http.connection-request-timeout-ms:2000}") // Max wait for a pooled connection
+    private long connectionRequestTimeoutMs;
+
+    @Value("${apifootball.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${apifootball.http.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
     @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory apiFootballRequestFactory, MeterRegistry meterRegistry,
+                                     UpstreamRateLimiter rateLimiter, UpstreamCircuitBreaker circuitBreaker,
+                                     UpstreamBulkhead bulkhead) {
+        RestTemplate restTemplate = new RestTemplate(apiFootballRequestFactory);
 
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
         converter.setSupportedMediaTypes(Arrays.asList(
                 MediaType.APPLICATION_JSON,
-                MediaType.TEXT_HTML 
+                MediaType.TEXT_HTML
         ));
 
         restTemplate.getMessageConverters().add(0, converter);
+        // Permits are taken outside the latency timer, which only measures the upstream itself.
+        // The circuit breaker likewise judges slowness without the wait for a rate-limit permit.
+        restTemplate.getInterceptors().add(new UpstreamRateLimitInterceptor(rateLimiter, circuitBreaker));
+        restTemplate.getInterceptors().add(new UpstreamCircuitBreakerInterceptor(circuitBreaker, bulkhead));
+        restTemplate.getInterceptors().add(new UpstreamMetricsInterceptor(meterRegistry));
         return restTemplate;
     }
+
+    @Bean
+    public ClientHttpRequestFactory apiFootballRequestFactory(MeterRegistry meterRegistry) {
+        logger.info("Using '{}' HTTP client for APIFootball", clientMode);
+        switch (clientMode) {
+            case "simple":
+                SimpleClientHttpRequestFactory simple = new SimpleClientHttpRequestFactory();
+                simple.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+                simple.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+                return simple;
+            case "http2":
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                        .build();
+                JdkClientHttpRequestFactory jdk = new JdkClientHttpRequestFactory(httpClient);
+                jdk.setReadTimeout(Duration.ofMillis(responseTimeoutMs));
+                return jdk;
+            case "pooled":
+                return pooledRequestFactory(meterRegistry);
+            default:
+                throw new IllegalArgumentException("Unknown apifootball.http.client mode: " + clientMode);
+        }
+    }
+
+    private ClientHttpRequestFactory pooledRequestFactory(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setMaxConnTotal(maxConnectionsTotal)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        // Re-check connections that sat idle long enough for the server to drop them
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                // I/O failures are still retried once; 429/503 are left to UpstreamRateLimiter instead of
+                // being retried after Retry-After here, which would charge the quota twice.
+                .setRetryStrategy(new DefaultHttpRequestRetryStrategy() {
+                    @Override
+                    public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+                        return false;
+                    }
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+
+        registerPoolGauge(meterRegistry, "leased", connectionManager, PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, "pending", connectionManager, PoolStats::getPending);
+        registerPoolGauge(meterRegistry, "available", connectionManager, PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, "max", connectionManager, PoolStats::getMax);
+
+        // The factory closes the HttpClient (and with it the pool) when the context shuts down.
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry, String state,
+                                          PoolingHttpClientConnectionManager connectionManager,
+                                          ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("apifootball.http.pool.connections", connectionManager,
+                        manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .description("APIFootball HTTP connection pool state")
+                .register(meterRegistry);
+    }
 }
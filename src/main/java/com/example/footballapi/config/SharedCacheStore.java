@@ -0,0 +1,57 @@
+package com.example.footballapi.config;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Second-level cache shared by all instances of the service, behind the per-instance Caffeine caches
+ * (see {@link SharedCacheTier}). Values are opaque bytes; keys are scoped by cache name.
+ *
+ * Besides storage, an implementation carries two coordination primitives: a short per-key lease, so
+ * only one instance refreshes a key from the upstream at a time, and a broadcast of {@link Change}s,
+ * so the other instances can drop or replace their local copy. {@link InProcessSharedCacheStore} keeps
+ * everything in memory of one JVM; a networked store (e.g. Redis with pub/sub) implements the same
+ * contract and is registered as a {@code SharedCacheStore} bean.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * The stored entry, or null if there is none or it has expired.
+     */
+    Entry get(String cacheName, String key);
+
+    /**
+     * Stores a value written at {@code writtenAtMillis}, replacing any previous one. It expires {@code ttl}
+     * after it was written; {@code ttl} null means it does not expire.
+     */
+    void put(String cacheName, String key, byte[] value, long writtenAtMillis, Duration ttl);
+
+    void evict(String cacheName, String key);
+
+    void clear(String cacheName);
+
+    /**
+     * Takes the lease on a key for {@code owner} unless another owner holds an unexpired one.
+     */
+    boolean tryLease(String cacheName, String key, String owner, Duration lease);
+
+    /**
+     * Delivers a change to every subscriber, including those of the publishing instance.
+     */
+    void publish(Change change);
+
+    /**
+     * Registers a change listener until the returned handle is closed.
+     */
+    AutoCloseable subscribe(Consumer<Change> listener);
+
+    record Entry(byte[] value, long writtenAtMillis) {
+    }
+
+    /**
+     * A write ({@code evicted} false) or eviction by instance {@code origin}; a null key means the
+     * whole cache was cleared.
+     */
+    record Change(String origin, String cacheName, String key, boolean evicted) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.footballapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The caches' view of the optional {@link SharedCacheStore} (L2), enabled by registering a store, e.g. with
+ * {@code app.cache.l2.type=in-process}. Without one every method is a no-op and the Caffeine caches behave
+ * as a purely local cache.
+ *
+ * With a store, the Caffeine caches act as a near cache in front of it: a local miss is looked up in L2
+ * before calling the upstream, and every local write is written through to L2 and announced to the other
+ * instances, which replace their local copy of the key (if they hold one) from L2. Values keep the time
+ * they were first written across instances, so a value taken from L2 is as old locally as it is there. Refreshes, whether
+ * refresh-ahead or prefetch, first {@link #claimRefresh claim} the key so that one instance fetches it from
+ * the upstream and the others pick up its result.
+ */
+@Component
+public class SharedCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedCacheTier.class);
+
+    // Stands in for SimpleKey.EMPTY, the key of no-argument cached methods.
+    private static final String EMPTY_KEY = "";
+
+    private final SharedCacheStore store;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Duration refreshLease;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Registration> caches = new ConcurrentHashMap<>();
+    private final AutoCloseable subscription;
+
+    public SharedCacheTier(ObjectProvider<SharedCacheStore> store, MeterRegistry meterRegistry,
+                           @Value("${app.cache.l2.refresh-lease:PT30S}") Duration refreshLease) {
+        this.store = store.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.refreshLease = refreshLease;
+        this.subscription = this.store != null ? this.store.subscribe(this::onChange) : null;
+        if (this.store != null) {
+            logger.info("Caches are backed by shared store {}", this.store.getClass().getSimpleName());
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * Declares a cache: its entries are kept in L2 for {@code ttl} (null for no expiry) and
+     * {@code onRemoteChange} receives the keys other instances wrote (false) or evicted (true),
+     * with a null key when they cleared the cache.
+     */
+    void register(String cacheName, Duration ttl, RemoteChangeListener onRemoteChange) {
+        caches.put(cacheName, new Registration(ttl, onRemoteChange));
+    }
+
+    /**
+     * The value held in L2 and when it was written, or null.
+     */
+    public TimedValue get(String cacheName, Object key) {
+        String storeKey = storeKey(key);
+        if (store == null || storeKey == null) {
+            return null;
+        }
+        SharedCacheStore.Entry entry = store.get(cacheName, storeKey);
+        count(cacheName, entry != null ? "hit" : "miss");
+        return entry != null ? decode(cacheName, entry) : null;
+    }
+
+    /**
+     * The value held in L2 if another instance wrote it within the refresh lease, i.e. it has just been refreshed.
+     */
+    public TimedValue getRecentlyWritten(String cacheName, Object key) {
+        String storeKey = storeKey(key);
+        if (store == null || storeKey == null) {
+            return null;
+        }
+        SharedCacheStore.Entry entry = store.get(cacheName, storeKey);
+        return entry != null && isRecent(entry) ? decode(cacheName, entry) : null;
+    }
+
+    /**
+     * Whether this instance should refresh the key from the upstream: true unless another instance
+     * refreshed it within the refresh lease or is refreshing it right now. Always true without L2.
+     */
+    public boolean claimRefresh(String cacheName, Object key) {
+        String storeKey = storeKey(key);
+        if (store == null || storeKey == null) {
+            return true;
+        }
+        SharedCacheStore.Entry entry = store.get(cacheName, storeKey);
+        if (entry != null && isRecent(entry)) {
+            return false;
+        }
+        return store.tryLease(cacheName, storeKey, instanceId, refreshLease);
+    }
+
+    /**
+     * Writes a value through to L2 with the time it was written, so that it keeps its age there.
+     */
+    void put(String cacheName, Object key, Object value, long writtenAtMillis) {
+        String storeKey = storeKey(key);
+        Registration registration = caches.get(cacheName);
+        if (store == null || storeKey == null || registration == null) {
+            return;
+        }
+        store.put(cacheName, storeKey, CacheValueCodec.encode(cacheName, value), writtenAtMillis, registration.ttl());
+        store.publish(new SharedCacheStore.Change(instanceId, cacheName, storeKey, false));
+    }
+
+    void evict(String cacheName, Object key) {
+        String storeKey = storeKey(key);
+        if (store == null || storeKey == null) {
+            return;
+        }
+        store.evict(cacheName, storeKey);
+        store.publish(new SharedCacheStore.Change(instanceId, cacheName, storeKey, true));
+    }
+
+    void clear(String cacheName) {
+        if (store == null) {
+            return;
+        }
+        store.clear(cacheName);
+        store.publish(new SharedCacheStore.Change(instanceId, cacheName, null, true));
+    }
+
+    private void onChange(SharedCacheStore.Change change) {
+        Registration registration = caches.get(change.cacheName());
+        if (registration == null || instanceId.equals(change.origin())) {
+            return;
+        }
+        Object key = change.key() == null ? null : EMPTY_KEY.equals(change.key()) ? SimpleKey.EMPTY : change.key();
+        registration.onRemoteChange().changed(key, change.evicted());
+    }
+
+    private static TimedValue decode(String cacheName, SharedCacheStore.Entry entry) {
+        return new TimedValue(CacheValueCodec.decode(cacheName, entry.value()), entry.writtenAtMillis());
+    }
+
+    private boolean isRecent(SharedCacheStore.Entry entry) {
+        return System.currentTimeMillis() - entry.writtenAtMillis() < refreshLease.toMillis();
+    }
+
+    private void count(String cacheName, String result) {
+        meterRegistry.counter("cache.l2.gets", "cache", cacheName, "result", result).increment();
+    }
+
+    private static String storeKey(Object key) {
+        if (key instanceof String id) {
+            return id;
+        }
+        return SimpleKey.EMPTY.equals(key) ? EMPTY_KEY : null;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    @FunctionalInterface
+    interface RemoteChangeListener {
+        void changed(Object key, boolean evicted);
+    }
+
+    /**
+     * A decoded L2 value and the time it was originally written, by whichever instance.
+     */
+    public record TimedValue(Object value, long writtenAtMillis) {
+    }
+
+    private record Registration(Duration ttl, RemoteChangeListener onRemoteChange) {
+    }
+}
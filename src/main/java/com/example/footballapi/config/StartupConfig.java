@@ -0,0 +1,60 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.dto.ApiErrorResponseDTO;
+import com.example.footballapi.dto.BatchStandingsItemDTO;
+import com.example.footballapi.dto.BatchStandingsRequestDTO;
+import com.example.footballapi.dto.BatchStandingsResponseDTO;
+import com.example.footballapi.dto.BatchStandingsResultDTO;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.EventDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.RankedStandingDTO;
+import com.example.footballapi.dto.SearchResultDTO;
+import com.example.footballapi.dto.TeamStandingDTO;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * What the fast-start builds need beyond the defaults (see the {@code native} Maven profile and the
+ * {@code lazy} Spring profile).
+ *
+ * The DTOs are bound for reflection because Jackson reaches most of them outside of a controller
+ * signature, where AOT cannot infer them: upstream responses are decoded into them and the cached
+ * endpoints write them through {@link com.example.footballapi.service.ResponseBodyCache}.
+ */
+@Configuration
+@ImportRuntimeHints(StartupConfig.SwaggerUiHints.class)
+@RegisterReflectionForBinding({
+        CountryDTO.class, LeagueDTO.class, TeamStandingDTO.class, EventDTO.class, ApiErrorResponseDTO.class,
+        BatchStandingsRequestDTO.class, BatchStandingsItemDTO.class, BatchStandingsResponseDTO.class,
+        BatchStandingsResultDTO.class, RankedStandingDTO.class, SearchResultDTO.class})
+public class StartupConfig {
+
+    /**
+     * Keeps beans that act once all singletons exist (e.g. the snapshot restore) eager under
+     * {@code spring.main.lazy-initialization}; a lazy one would never be called back.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerSmartInitializingSingletons() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SmartInitializingSingleton.class);
+    }
+
+    /**
+     * springdoc registers its own hints, but not the Swagger UI assets it serves from the webjar.
+     */
+    static class SwaggerUiHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                    .registerPattern("META-INF/resources/webjars/swagger-ui/*/*")
+                    .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.footballapi.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded executors for the internal background work: cache refreshes, prefetch and batch fan-out.
+ *
+ * With {@code spring.threads.virtual.enabled} every task runs on its own virtual thread and the
+ * concurrency limit is a semaphore, so tasks over the limit wait parked rather than in a queue.
+ * Otherwise a fixed pool of platform threads with a bounded queue is used. In both modes at most
+ * {@code queueCapacity} tasks wait, further submissions are rejected with a
+ * {@link RejectedExecutionException}.
+ */
+public final class TaskExecutors {
+
+    private TaskExecutors() {
+    }
+
+    public static ExecutorService bounded(String threadNamePrefix, int concurrency, int queueCapacity,
+                                          boolean virtualThreads) {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor(threadNamePrefix, concurrency, queueCapacity);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor.getThreadPoolExecutor();
+    }
+
+    private static final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+        private final String name;
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+        // Running plus waiting tasks, so that the number of parked threads is bounded like a queue
+        private final Semaphore capacity;
+
+        BoundedVirtualThreadExecutor(String threadNamePrefix, int concurrency, int queueCapacity) {
+            this.name = threadNamePrefix;
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+            this.permits = new Semaphore(concurrency);
+            this.capacity = new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) concurrency + queueCapacity));
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!capacity.tryAcquire()) {
+                throw new RejectedExecutionException("Queue capacity of " + name + " executor reached");
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        permits.acquireUninterruptibly();
+                        try {
+                            task.run();
+                        } finally {
+                            permits.release();
+                        }
+                    } finally {
+                        capacity.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                capacity.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
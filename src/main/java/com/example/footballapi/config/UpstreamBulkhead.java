@@ -0,0 +1,88 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.exception.ExternalApiException;
+import com.example.footballapi.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of APIFootball calls in flight at {@code app.upstream.bulkhead.max-concurrent-calls}.
+ *
+ * When the upstream slows down, callers beyond the cap wait at most {@code max-wait} for a slot and are then
+ * rejected with an {@link UpstreamUnavailableException}, instead of queueing behind the connection pool until
+ * every request thread is parked on the upstream. The WebClient path never waits, as it holds no thread.
+ */
+@Component
+public class UpstreamBulkhead {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final boolean enabled;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore slots;
+    private final Counter rejected;
+
+    public UpstreamBulkhead(MeterRegistry meterRegistry,
+                            @Value("${app.upstream.bulkhead.enabled:true}") boolean enabled,
+                            @Value("${app.upstream.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+                            @Value("${app.upstream.bulkhead.max-wait:PT0.5S}") Duration maxWait) {
+        this.enabled = enabled;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.slots = new Semaphore(maxConcurrentCalls, true);
+        this.rejected = Counter.builder("apifootball.bulkhead.rejected")
+                .description("APIFootball calls rejected because too many were already in flight")
+                .register(meterRegistry);
+        Gauge.builder("apifootball.bulkhead.active", this, bulkhead -> bulkhead.maxConcurrentCalls - bulkhead.slots.availablePermits())
+                .description("APIFootball calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a slot, waiting up to {@code max-wait} for one.
+     */
+    public void acquire() {
+        if (!enabled) {
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while waiting to call the football data service.", e);
+        }
+        if (!acquired) {
+            reject();
+        }
+    }
+
+    /**
+     * Takes a slot if one is free right now.
+     */
+    public void tryAcquire() {
+        if (enabled && !slots.tryAcquire()) {
+            reject();
+        }
+    }
+
+    public void release() {
+        if (enabled) {
+            slots.release();
+        }
+    }
+
+    private void reject() {
+        rejected.increment();
+        throw new UpstreamUnavailableException(
+                "Too many requests to the football data service are already in progress; try again shortly.", RETRY_AFTER);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.exception.ExternalApiException;
+import com.example.footballapi.model.StandingsTable;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Caffeine loader used for background refreshes of a named cache.
+ *
+ * An empty upstream result is treated as a failed refresh rather than a value: the loader throws,
+ * Caffeine keeps the previous entry and it continues to be served until it reaches the hard
+ * max-staleness of the cache. This mirrors the {@code unless = "#result.isEmpty()"} rule
+ * applied on the {@code @Cacheable} miss path. A successful refresh is installed through the cache it
+ * is attached to, which announces it as a {@link CacheEntryUpdatedEvent} once readers can see it;
+ * Caffeine then discards its own copy of the result, as the entry has changed meanwhile. Refreshes
+ * call the upstream at background priority of the {@link UpstreamRateLimiter}.
+ *
+ * With a shared tier only the instance that claims the key calls the upstream and writes its result
+ * through to the other instances. An instance that finds the key just refreshed elsewhere takes that
+ * value, with the age it has there. One that finds the refresh in progress elsewhere fails its refresh, so
+ * it keeps its previous value and that value's age until the result arrives.
+ */
+class UpstreamCacheLoader implements CacheLoader<Object, Object> {
+
+    private final String cacheName;
+    private final Function<Object, ?> fetch;
+    private final UpstreamRateLimiter rateLimiter;
+    private final SharedCacheTier sharedTier;
+    private volatile CacheConfig.RefreshAheadCaffeineCache cache;
+
+    UpstreamCacheLoader(String cacheName, Function<Object, ?> fetch, UpstreamRateLimiter rateLimiter,
+                        SharedCacheTier sharedTier) {
+        this.cacheName = cacheName;
+        this.fetch = fetch;
+        this.rateLimiter = rateLimiter;
+        this.sharedTier = sharedTier;
+    }
+
+    /**
+     * Attaches the Spring cache wrapping the Caffeine cache this loader was built into.
+     */
+    void attach(CacheConfig.RefreshAheadCaffeineCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Object load(Object key) {
+        return reload(key, null);
+    }
+
+    @Override
+    public Object reload(Object key, Object oldValue) {
+        SharedCacheTier.TimedValue shared = sharedTier.getRecentlyWritten(cacheName, key);
+        if (shared != null) {
+            cache.putRefreshed(key, shared.value(), shared.writtenAtMillis());
+            return shared.value();
+        }
+        if (!sharedTier.claimRefresh(cacheName, key)) {
+            // Fails the refresh so that the entry keeps its age; the other instance's result replaces it once shared.
+            throw new ExternalApiException("Refresh of " + cacheName + "[" + key + "] is running on another instance.");
+        }
+        Object value = rateLimiter.background(() -> fetch.apply(key));
+        if (value == null
+                || value instanceof Collection<?> list && list.isEmpty()
+                || value instanceof StandingsTable table && table.isEmpty()) {
+            throw new ExternalApiException("Refresh of " + cacheName + "[" + key + "] returned no data; keeping previous value.");
+        }
+        long writtenAt = System.currentTimeMillis();
+        sharedTier.put(cacheName, key, value, writtenAt);
+        cache.putRefreshed(key, value, writtenAt);
+        return value;
+    }
+}
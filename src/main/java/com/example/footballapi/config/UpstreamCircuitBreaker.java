@@ -0,0 +1,279 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker for APIFootball, shared by the RestTemplate and WebClient paths.
+ *
+ * The outcomes of the last {@code app.upstream.circuit-breaker.sliding-window-size} calls are kept. Once at
+ * least {@code minimum-calls} are known and either the share of failed calls (I/O errors, 5xx responses)
+ * reaches {@code failure-rate-threshold} percent or the share of calls slower than {@code slow-call-duration}
+ * reaches {@code slow-call-rate-threshold} percent, the breaker opens. While open every call fails at once
+ * with an {@link UpstreamUnavailableException} instead of waiting on the upstream; cached entries keep being
+ * served because their background refreshes fail the same way. After {@code open-duration} the breaker is
+ * half-open and lets {@code half-open-calls} trial calls through: a failed or slow trial opens it again,
+ * and it closes once all trials have succeeded.
+ */
+@Component
+public class UpstreamCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final boolean enabled;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+
+    private final Counter successful;
+    private final Counter failed;
+    private final Counter slow;
+    private final Counter notPermitted;
+
+    // All state below is guarded by this.
+    private State state = State.CLOSED;
+    // Bumped on every transition; outcomes of calls admitted under an earlier state are ignored.
+    private long generation;
+    private long openUntil;
+    private final byte[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private int windowSlowCalls;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public UpstreamCircuitBreaker(MeterRegistry meterRegistry,
+                                  @Value("${app.upstream.circuit-breaker.enabled:true}") boolean enabled,
+                                  @Value("${app.upstream.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                                  @Value("${app.upstream.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+                                  @Value("${app.upstream.circuit-breaker.slow-call-duration:PT5S}") Duration slowCallDuration,
+                                  @Value("${app.upstream.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                  @Value("${app.upstream.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${app.upstream.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+                                  @Value("${app.upstream.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.window = new byte[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+
+        this.successful = callCounter(meterRegistry, "success");
+        this.failed = callCounter(meterRegistry, "failure");
+        this.slow = callCounter(meterRegistry, "slow");
+        this.notPermitted = callCounter(meterRegistry, "not_permitted");
+        for (State s : State.values()) {
+            Gauge.builder("apifootball.circuit.state", this, breaker -> breaker.getState() == s ? 1 : 0)
+                    .description("Current state of the APIFootball circuit breaker (1 for the active state)")
+                    .tag("state", s.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Fails fast if a call made now would not be admitted, without taking a trial slot. Lets callers skip
+     * work that only makes sense for an admitted call, such as waiting for a rate limiter permit.
+     */
+    public void checkPermitted() {
+        if (!enabled) {
+            return;
+        }
+        Duration retryAfter;
+        synchronized (this) {
+            retryAfter = rejection(System.nanoTime());
+        }
+        if (retryAfter != null) {
+            reject(retryAfter);
+        }
+    }
+
+    /**
+     * Admits one call, moving an open breaker whose {@code open-duration} has passed to half-open.
+     * The returned permit must be completed with the outcome of the call.
+     */
+    public Permit acquire() {
+        if (!enabled) {
+            return new Permit(-1);
+        }
+        long now = System.nanoTime();
+        Duration retryAfter;
+        Permit permit = null;
+        synchronized (this) {
+            if (state == State.OPEN && now >= openUntil) {
+                transitionTo(State.HALF_OPEN, now);
+            }
+            retryAfter = rejection(now);
+            if (retryAfter == null) {
+                if (state == State.HALF_OPEN) {
+                    trialsStarted++;
+                }
+                permit = new Permit(generation);
+            }
+        }
+        if (permit == null) {
+            reject(retryAfter);
+        }
+        return permit;
+    }
+
+    private Duration rejection(long now) {
+        if (state == State.OPEN && now < openUntil) {
+            return Duration.ofNanos(openUntil - now);
+        }
+        if (state == State.HALF_OPEN && trialsStarted >= halfOpenCalls) {
+            // The trials should be over within about the slow-call duration.
+            return Duration.ofNanos(slowCallNanos);
+        }
+        return null;
+    }
+
+    private void reject(Duration retryAfter) {
+        notPermitted.increment();
+        throw new UpstreamUnavailableException(
+                "The football data service is failing; not calling it for now. Try again shortly.", retryAfter);
+    }
+
+    private void onResult(Permit permit, boolean callFailed, long nanos) {
+        boolean callSlow = nanos >= slowCallNanos;
+        (callFailed ? failed : callSlow ? slow : successful).increment();
+        if (permit.generation < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (permit.generation != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (callFailed || callSlow) {
+                    transitionTo(State.OPEN, System.nanoTime());
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED, System.nanoTime());
+                }
+                return;
+            }
+            record((byte) ((callFailed ? FAILED : 0) | (callSlow ? SLOW : 0)));
+            if (windowCount >= minimumCalls
+                    && (windowFailures * 100 >= failureRateThreshold * windowCount
+                    || windowSlowCalls * 100 >= slowCallRateThreshold * windowCount)) {
+                logger.warn("Opening the APIFootball circuit breaker: {} of the last {} calls failed and {} were slower than {} ms",
+                        windowFailures, windowCount, windowSlowCalls, TimeUnit.NANOSECONDS.toMillis(slowCallNanos));
+                transitionTo(State.OPEN, System.nanoTime());
+            }
+        }
+    }
+
+    private void onCancelled(Permit permit) {
+        synchronized (this) {
+            // Give the trial slot of a call that never completed to another caller.
+            if (permit.generation == generation && state == State.HALF_OPEN) {
+                trialsStarted--;
+            }
+        }
+    }
+
+    private void record(byte outcome) {
+        if (windowCount == window.length) {
+            byte evicted = window[windowNext];
+            windowFailures -= evicted & FAILED;
+            windowSlowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = outcome;
+        windowFailures += outcome & FAILED;
+        windowSlowCalls += (outcome & SLOW) >> 1;
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void transitionTo(State next, long now) {
+        if (next == State.OPEN) {
+            openUntil = now + openDuration.toNanos();
+            logger.warn("APIFootball circuit breaker is open; failing fast for {} s", openDuration.toSeconds());
+        } else {
+            logger.info("APIFootball circuit breaker is {}", next.name().toLowerCase().replace('_', '-'));
+        }
+        state = next;
+        generation++;
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        windowSlowCalls = 0;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("apifootball.circuit.calls")
+                .description("APIFootball calls seen by the circuit breaker, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One admitted call. Exactly one of the completion methods takes effect; later ones are ignored.
+     */
+    public final class Permit {
+
+        private final long generation;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * The upstream answered; 5xx statuses count as failures, anything else (including 429) as success.
+         */
+        public void onResponse(int status) {
+            complete(status >= 500);
+        }
+
+        /**
+         * The call failed without a response, e.g. on a connect or read timeout.
+         */
+        public void onError() {
+            complete(true);
+        }
+
+        /**
+         * The caller gave up on the call before it completed; it is not counted either way.
+         */
+        public void onCancel() {
+            if (completed.compareAndSet(false, true)) {
+                onCancelled(this);
+            }
+        }
+
+        private void complete(boolean callFailed) {
+            if (completed.compareAndSet(false, true)) {
+                onResult(this, callFailed, System.nanoTime() - startedAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.footballapi.config;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient counterpart of {@link UpstreamCircuitBreakerInterceptor}. A call that finds the bulkhead
+ * full is rejected at once rather than waiting for a slot. Once the response arrives, the call is
+ * complete when its body has been consumed, failed or been cancelled.
+ */
+public class UpstreamCircuitBreakerExchangeFilter implements ExchangeFilterFunction {
+
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final UpstreamBulkhead bulkhead;
+
+    public UpstreamCircuitBreakerExchangeFilter(UpstreamCircuitBreaker circuitBreaker, UpstreamBulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            bulkhead.tryAcquire();
+            UpstreamCircuitBreaker.Permit permit;
+            try {
+                permit = circuitBreaker.acquire();
+            } catch (RuntimeException e) {
+                bulkhead.release();
+                throw e;
+            }
+            Completion completion = new Completion();
+            return next.exchange(request)
+                    .map(response -> {
+                        completion.bodyPending = true;
+                        int status = response.statusCode().value();
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnComplete(() -> completion.complete(() -> permit.onResponse(status)))
+                                        .doOnError(e -> completion.complete(permit::onError))
+                                        .doOnCancel(() -> completion.complete(permit::onCancel)))
+                                .build();
+                    })
+                    // Before the response arrives; afterwards its body completes the call
+                    .doOnError(e -> completion.completeUnlessBodyPending(permit::onError))
+                    .doOnCancel(() -> completion.completeUnlessBodyPending(permit::onCancel));
+        });
+    }
+
+    /**
+     * Reports a call's outcome and gives its bulkhead slot back, once.
+     */
+    private final class Completion {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean bodyPending;
+
+        void complete(Runnable outcome) {
+            if (done.compareAndSet(false, true)) {
+                try {
+                    outcome.run();
+                } finally {
+                    bulkhead.release();
+                }
+            }
+        }
+
+        void completeUnlessBodyPending(Runnable outcome) {
+            if (!bodyPending) {
+                complete(outcome);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.footballapi.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Runs every APIFootball call inside a {@link UpstreamBulkhead} slot and reports its outcome to the
+ * {@link UpstreamCircuitBreaker}. Both cover the call until its response is closed, i.e. after the body
+ * has been read and decoded, so a slow or broken body counts against the breaker and keeps its slot.
+ */
+public class UpstreamCircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final UpstreamBulkhead bulkhead;
+
+    public UpstreamCircuitBreakerInterceptor(UpstreamCircuitBreaker circuitBreaker, UpstreamBulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        bulkhead.acquire();
+        UpstreamCircuitBreaker.Permit permit;
+        try {
+            permit = circuitBreaker.acquire();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            return new CompletingResponse(response, response.getStatusCode(), permit);
+        } catch (IOException | RuntimeException e) {
+            permit.onError();
+            bulkhead.release();
+            if (response != null) {
+                response.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Completes the permit and gives the bulkhead slot back when closed, as a failure if reading the body failed.
+     */
+    private final class CompletingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final HttpStatusCode status;
+        private final UpstreamCircuitBreaker.Permit permit;
+        private boolean bodyFailed;
+        private boolean closed;
+
+        private CompletingResponse(ClientHttpResponse response, HttpStatusCode status,
+                                   UpstreamCircuitBreaker.Permit permit) {
+            this.response = response;
+            this.status = status;
+            this.permit = permit;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(response.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return super.read();
+                    } catch (IOException e) {
+                        bodyFailed = true;
+                        throw e;
+                    }
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    try {
+                        return super.read(b, off, len);
+                    } catch (IOException e) {
+                        bodyFailed = true;
+                        throw e;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                response.close();
+            } finally {
+                if (bodyFailed) {
+                    permit.onError();
+                } else {
+                    permit.onResponse(status.value());
+                }
+                bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.footballapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient counterpart of {@link UpstreamMetricsInterceptor}: records {@code apifootball.http.requests}
+ * with the same {@code action} and {@code outcome} tags, from subscription until the response headers arrive.
+ */
+public class UpstreamMetricsExchangeFilter implements ExchangeFilterFunction {
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsExchangeFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String action = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().getFirst("action");
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnSuccess(response -> UpstreamMetricsInterceptor.record(meterRegistry, sample, action,
+                            UpstreamMetricsInterceptor.outcome(response.statusCode())))
+                    .doOnError(e -> UpstreamMetricsInterceptor.record(meterRegistry, sample, action, "IO_ERROR"));
+        });
+    }
+}
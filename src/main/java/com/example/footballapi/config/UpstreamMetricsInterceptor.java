@@ -0,0 +1,55 @@
+package com.example.footballapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Records the latency of every APIFootball call, keyed by the {@code action} query parameter
+ * (get_standings, get_leagues, get_countries, ...) and the outcome of the call.
+ * The timer covers connection lease, request and the wait for the response headers.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String METRIC_NAME = "apifootball.http.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String action = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("action");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = outcome(response.getStatusCode());
+            return response;
+        } finally {
+            record(meterRegistry, sample, action, outcome);
+        }
+    }
+
+    static String outcome(HttpStatusCode status) {
+        return status.is2xxSuccessful() ? "SUCCESS" : status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+
+    static void record(MeterRegistry meterRegistry, Timer.Sample sample, String action, String outcome) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Latency of APIFootball upstream calls")
+                .tag("action", action != null ? action : "unknown")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
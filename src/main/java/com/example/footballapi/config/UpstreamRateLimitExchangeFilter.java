@@ -0,0 +1,52 @@
+package com.example.footballapi.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * WebClient counterpart of {@link UpstreamRateLimitInterceptor}. The wait for a permit is a timer
+ * rather than a sleeping thread.
+ */
+public class UpstreamRateLimitExchangeFilter implements ExchangeFilterFunction {
+
+    private final UpstreamRateLimiter rateLimiter;
+    private final UpstreamCircuitBreaker circuitBreaker;
+
+    public UpstreamRateLimitExchangeFilter(UpstreamRateLimiter rateLimiter, UpstreamCircuitBreaker circuitBreaker) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        UpstreamRateLimiter.Priority priority = rateLimiter.currentPriority();
+        return Mono.defer(() -> {
+                    circuitBreaker.checkPermitted();
+                    return permit(priority, System.nanoTime());
+                })
+                .then(Mono.defer(() -> next.exchange(request)))
+                .doOnNext(response -> {
+                    if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        rateLimiter.throttled(UpstreamRateLimiter.retryAfter(
+                                response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+                    }
+                });
+    }
+
+    private Mono<Void> permit(UpstreamRateLimiter.Priority priority, long askedAt) {
+        return Mono.defer(() -> {
+            UpstreamRateLimiter.Reservation reservation = rateLimiter.reserve(priority, askedAt);
+            Mono<Void> wait = reservation.waitNanos() > 0
+                    ? Mono.delay(Duration.ofNanos(reservation.waitNanos())).then()
+                    : Mono.empty();
+            return reservation.granted() ? wait : wait.then(permit(priority, askedAt));
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.footballapi.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Takes a permit from the {@link UpstreamRateLimiter} before every APIFootball call and pauses it
+ * when the upstream answers 429. No permit is taken for a call the {@link UpstreamCircuitBreaker}
+ * would reject anyway.
+ */
+public class UpstreamRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final UpstreamRateLimiter rateLimiter;
+    private final UpstreamCircuitBreaker circuitBreaker;
+
+    public UpstreamRateLimitInterceptor(UpstreamRateLimiter rateLimiter, UpstreamCircuitBreaker circuitBreaker) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        circuitBreaker.checkPermitted();
+        rateLimiter.acquire();
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            rateLimiter.throttled(UpstreamRateLimiter.retryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+        }
+        return response;
+    }
+}
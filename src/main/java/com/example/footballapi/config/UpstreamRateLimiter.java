@@ -0,0 +1,224 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.exception.ExternalApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Client-side token bucket for APIFootball, shared by the RestTemplate and WebClient paths.
+ *
+ * The bucket refills at {@code app.upstream.rate-limit.requests-per-second} up to {@code burst} tokens.
+ * Calls are {@link Priority#INTERACTIVE} (a user request waiting on a cache miss) unless they run inside
+ * {@link #background(Supplier)}, as cache refreshes and the prefetcher do. Background calls may only take
+ * tokens above {@code background-reserve} (a fraction of the burst) and queue behind every interactive
+ * call, so a refresh storm cannot use up the budget user-facing misses need. A call over budget waits for
+ * its token up to the deadline of its priority and is rejected with an {@link ExternalApiException} beyond
+ * that; a rejected refresh keeps the stale cached value. An upstream 429 empties the bucket for its
+ * {@code Retry-After}.
+ */
+@Component
+public class UpstreamRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamRateLimiter.class);
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private static final ThreadLocal<Priority> PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    private final boolean enabled;
+    private final double permitsPerNano;
+    private final double burst;
+    private final double backgroundFloor;
+    private final Map<Priority, Long> maxWaitNanos = new EnumMap<>(Priority.class);
+    private final Duration throttledPause;
+
+    private final Map<Priority, Counter> granted = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final Map<Priority, Timer> waits = new EnumMap<>(Priority.class);
+    private final Counter throttled;
+
+    // Guarded by this; may go negative while permits are reserved ahead of time.
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    public UpstreamRateLimiter(MeterRegistry meterRegistry,
+                               @Value("${app.upstream.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${app.upstream.rate-limit.requests-per-second:5}") double requestsPerSecond,
+                               @Value("${app.upstream.rate-limit.burst:20}") int burst,
+                               @Value("${app.upstream.rate-limit.background-reserve:0.5}") double backgroundReserve,
+                               @Value("${app.upstream.rate-limit.interactive-max-wait:PT2S}") Duration interactiveMaxWait,
+                               @Value("${app.upstream.rate-limit.background-max-wait:PT1M}") Duration backgroundMaxWait,
+                               @Value("${app.upstream.rate-limit.throttled-pause:PT1M}") Duration throttledPause) {
+        this.enabled = enabled;
+        this.permitsPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.backgroundFloor = burst * backgroundReserve;
+        this.tokens = burst;
+        this.maxWaitNanos.put(Priority.INTERACTIVE, interactiveMaxWait.toNanos());
+        this.maxWaitNanos.put(Priority.BACKGROUND, backgroundMaxWait.toNanos());
+        this.throttledPause = throttledPause;
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            granted.put(priority, Counter.builder("apifootball.ratelimit.permits")
+                    .description("APIFootball calls admitted or rejected by the client-side rate limiter")
+                    .tag("priority", tag).tag("outcome", "granted").register(meterRegistry));
+            rejected.put(priority, Counter.builder("apifootball.ratelimit.permits")
+                    .description("APIFootball calls admitted or rejected by the client-side rate limiter")
+                    .tag("priority", tag).tag("outcome", "rejected").register(meterRegistry));
+            waits.put(priority, Timer.builder("apifootball.ratelimit.wait")
+                    .description("Time APIFootball calls waited for a rate limiter permit")
+                    .tag("priority", tag).register(meterRegistry));
+        }
+        this.throttled = Counter.builder("apifootball.ratelimit.throttled")
+                .description("Upstream 429 responses that paused the rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("apifootball.ratelimit.tokens", this, UpstreamRateLimiter::availableTokens)
+                .description("Requests APIFootball can take right now without waiting")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} with its upstream requests at background priority.
+     */
+    public <T> T background(Supplier<T> call) {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(Priority.BACKGROUND);
+        try {
+            return call.get();
+        } finally {
+            PRIORITY.set(previous);
+        }
+    }
+
+    public Priority currentPriority() {
+        return PRIORITY.get();
+    }
+
+    /**
+     * Takes a permit for the current thread's priority, sleeping until it is due.
+     */
+    public void acquire() {
+        Priority priority = currentPriority();
+        long askedAt = System.nanoTime();
+        while (true) {
+            Reservation reservation = reserve(priority, askedAt);
+            if (reservation.waitNanos() > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(reservation.waitNanos());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ExternalApiException("Interrupted while waiting for the APIFootball request budget.", e);
+                }
+            }
+            if (reservation.granted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * One step of acquiring a permit for a caller that started asking at {@code askedAt} ({@link System#nanoTime()}),
+     * without blocking; {@link #acquire()} and the WebClient filter loop over it.
+     *
+     * An interactive caller is always granted a permit, possibly ahead of time: the bucket goes into debt and
+     * the caller waits until its token has been refilled. A background caller is never granted ahead of time,
+     * so it cannot make later interactive callers wait behind it; it is told when to ask again instead.
+     * Either throws once the wait would end past the deadline of the priority.
+     */
+    public Reservation reserve(Priority priority, long askedAt) {
+        if (!enabled) {
+            return Reservation.GRANTED;
+        }
+        long now = System.nanoTime();
+        long deadline = askedAt + maxWaitNanos.get(priority);
+        Reservation reservation;
+        synchronized (this) {
+            refill();
+            if (priority == Priority.INTERACTIVE) {
+                long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+                reservation = now + waitNanos <= deadline ? new Reservation(true, waitNanos) : null;
+            } else if (tokens - 1 >= backgroundFloor) {
+                reservation = Reservation.GRANTED;
+            } else {
+                long waitNanos = (long) Math.ceil((backgroundFloor + 1 - tokens) / permitsPerNano);
+                reservation = now + waitNanos <= deadline ? new Reservation(false, waitNanos) : null;
+            }
+            if (reservation != null && reservation.granted()) {
+                tokens -= 1;
+            }
+        }
+        if (reservation == null) {
+            rejected.get(priority).increment();
+            throw new ExternalApiException("Request budget for the football data service is exhausted; try again shortly.");
+        }
+        if (reservation.granted()) {
+            granted.get(priority).increment();
+            waits.get(priority).record(now - askedAt + reservation.waitNanos(), TimeUnit.NANOSECONDS);
+        }
+        return reservation;
+    }
+
+    /**
+     * Called when APIFootball answered 429: no permits are handed out for {@code retryAfter}
+     * (or {@code app.upstream.rate-limit.throttled-pause} when the response did not say).
+     */
+    public void throttled(Duration retryAfter) {
+        if (!enabled) {
+            return;
+        }
+        Duration pause = retryAfter != null ? retryAfter : throttledPause;
+        logger.warn("APIFootball rejected a request for exceeding the quota; pausing upstream calls for {} s",
+                pause.toSeconds());
+        throttled.increment();
+        synchronized (this) {
+            refill();
+            tokens = Math.min(tokens, 0) - pause.toNanos() * permitsPerNano;
+        }
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given in seconds; HTTP dates and missing values yield null.
+     */
+    public static Duration retryAfter(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Outcome of one {@link #reserve} step: a permit usable after {@code waitNanos}, or (not granted)
+     * the time after which to ask again.
+     */
+    public record Reservation(boolean granted, long waitNanos) {
+        static final Reservation GRANTED = new Reservation(true, 0);
+    }
+
+    private synchronized double availableTokens() {
+        refill();
+        return Math.max(tokens, 0);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+    }
+}
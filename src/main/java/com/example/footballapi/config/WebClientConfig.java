@@ -0,0 +1,64 @@
+package com.example.footballapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking APIFootball client for the reactive variant ({@code app.reactive.enabled=true}).
+ * Uses Reactor Netty with its own connection pool, sized and timed out by the same
+ * {@code apifootball.http.*} properties as the blocking client.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class WebClientConfig {
+
+    @Value("${apifootball.http.max-connections-total:50}")
+    private int maxConnectionsTotal;
+
+    @Value("${apifootball.http.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${apifootball.http.response-timeout-ms:10000}")
+    private long responseTimeoutMs;
+
+    @Value("${apifootball.http.connection-request-timeout-ms:2000}") // Max wait for a pooled connection
+    private long connectionRequestTimeoutMs;
+
+    @Value("${apifootball.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${apifootball.http.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    @Bean
+    public WebClient apiFootballWebClient(WebClient.Builder builder, MeterRegistry meterRegistry,
+                                          UpstreamRateLimiter rateLimiter, UpstreamCircuitBreaker circuitBreaker,
+                                          UpstreamBulkhead bulkhead) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("apifootball")
+                .maxConnections(maxConnectionsTotal)
+                .pendingAcquireTimeout(Duration.ofMillis(connectionRequestTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(idleEvictionSeconds))
+                .maxLifeTime(Duration.ofSeconds(connectionTtlSeconds))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new UpstreamRateLimitExchangeFilter(rateLimiter, circuitBreaker))
+                .filter(new UpstreamCircuitBreakerExchangeFilter(circuitBreaker, bulkhead))
+                .filter(new UpstreamMetricsExchangeFilter(meterRegistry))
+                .build();
+    }
+}
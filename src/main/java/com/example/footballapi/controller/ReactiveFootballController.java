@@ -0,0 +1,214 @@
+package com.example.footballapi.controller;
+
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.dto.BatchStandingsItemDTO;
+import com.example.footballapi.dto.BatchStandingsRequestDTO;
+import com.example.footballapi.dto.BatchStandingsResponseDTO;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.RankedStandingDTO;
+import com.example.footballapi.dto.SearchResultDTO;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.service.FootballSearchIndex;
+import com.example.footballapi.service.ReactiveFootballApiService;
+import com.example.footballapi.service.ResponseBodyCache;
+import com.example.footballapi.service.ResponseValidators;
+import com.example.footballapi.service.StandingsJsonWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Same endpoints, parameters, bodies (from the shared {@link ResponseBodyCache}), headers and error responses as {@link FootballController}, served by
+ * {@link ReactiveFootballApiService} when {@code app.reactive.enabled=true}. Handlers return {@link Mono},
+ * so the servlet thread is released while APIFootball is being called and the response is completed
+ * from the WebClient event loop.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+@RequestMapping("/api/football")
+@CrossOrigin(origins = {"http://localhost:4200", "http://127.0.0.1:4200"})
+public class ReactiveFootballController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveFootballController.class);
+    private final ReactiveFootballApiService footballApiService;
+    private final ResponseValidators responseValidators;
+    private final ResponseBodyCache responseBodies;
+    private final FootballSearchIndex searchIndex;
+    private final StandingsJsonWriter standingsWriter;
+
+    public ReactiveFootballController(ReactiveFootballApiService footballApiService, ResponseValidators responseValidators,
+                                      ResponseBodyCache responseBodies, FootballSearchIndex searchIndex,
+                                      StandingsJsonWriter standingsWriter) {
+        this.footballApiService = footballApiService;
+        this.responseValidators = responseValidators;
+        this.responseBodies = responseBodies;
+        this.searchIndex = searchIndex;
+        this.standingsWriter = standingsWriter;
+    }
+
+    @Operation(summary = "Get team standing", description = "Returns the standing for a specific team in a league, "
+            + "optionally only the comma-separated JSON properties in fields (e.g. overall_league_position,overall_league_PTS).")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = TeamStandingDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid input parameters"),
+        @ApiResponse(responseCode = "404", description = "Country, league, or team not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error or external API failure")
+    })
+    @GetMapping("/standings/team")
+    public Mono<ResponseEntity<byte[]>> getTeamStanding(
+            @RequestParam String countryName,
+            @RequestParam String leagueName,
+            @RequestParam String teamName,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        logger.info("Received request for team standing: Country='{}', League='{}', Team='{}'",
+                countryName, leagueName, teamName);
+
+        if (countryName.trim().isEmpty() || leagueName.trim().isEmpty() || teamName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Country name, league name, and team name must not be empty.");
+        }
+        int projection = standingsWriter.parseFields(fields, false);
+
+        return footballApiService.findTeamRow(countryName, leagueName, teamName)
+                .map(team -> FootballController.encoded(
+                        FootballController.withStaleness(footballApiService.getStandingsStaleness(team.leagueId())),
+                        responseValidators.forEntry(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, team.leagueId()),
+                        responseBodies.forTeamStanding(team, projection, FootballController.acceptsGzip(acceptEncoding)),
+                        acceptEncoding));
+    }
+
+    @Operation(summary = "Get standings in bulk",
+            description = "Resolves many (country, league, optional team) items in one call. Items without a team name "
+                    + "return the whole league table. Each item carries its own status and error.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see the status of each result"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    @PostMapping("/standings/batch")
+    public Mono<ResponseEntity<BatchStandingsResponseDTO>> getBatchStandings(@RequestBody BatchStandingsRequestDTO request) {
+        List<BatchStandingsItemDTO> items = request.getItems();
+        logger.info("Received batch standings request with {} item(s)", items != null ? items.size() : 0);
+        return footballApiService.getBatchStandings(items)
+                .map(results -> ResponseEntity.ok(new BatchStandingsResponseDTO(results)));
+    }
+
+    @Operation(summary = "Get a league table",
+            description = "Returns a league's table ranked by position, points, goal_difference, goals_for or goals_against, "
+                    + "optionally only the ranks from..to (e.g. the top 5 with to=5) and the JSON properties in fields.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval",
+                content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = RankedStandingDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown sort or field, or invalid rank range"),
+        @ApiResponse(responseCode = "404", description = "Country or league not found")
+    })
+    @GetMapping("/standings/table")
+    public Mono<ResponseEntity<byte[]>> getLeagueTable(
+            @RequestParam String countryName,
+            @RequestParam String leagueName,
+            @RequestParam(defaultValue = "position") String sort,
+            @RequestParam(defaultValue = "1") int from,
+            @RequestParam(required = false) Integer to,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        int projection = standingsWriter.parseFields(fields, true);
+        return footballApiService.getLeagueTable(countryName, leagueName, sort, from, to)
+                .map(page -> FootballController.json(
+                        responseBodies.forPage(page, projection, FootballController.acceptsGzip(acceptEncoding)),
+                        acceptEncoding));
+    }
+
+    @Operation(summary = "Get a cross-league leaderboard",
+            description = "Ranks the teams of all leagues of the supported countries together by points, goal_difference, "
+                    + "goals_for, goals_against or position, ranks from..to, optionally only the JSON properties in fields. "
+                    + "Only leagues whose standings are cached are ranked: the leaderboard is partial, or empty, until the "
+                    + "standings prefetch has run.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval",
+                content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = RankedStandingDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown sort or field, invalid rank range or too many rows")
+    })
+    @GetMapping("/standings/leaderboard")
+    public Mono<ResponseEntity<byte[]>> getLeaderboard(
+            @RequestParam(defaultValue = "points") String sort,
+            @RequestParam(defaultValue = "1") int from,
+            @RequestParam(defaultValue = "20") int to,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        int projection = standingsWriter.parseFields(fields, true);
+        return footballApiService.getLeaderboard(sort, from, to)
+                .map(page -> FootballController.json(
+                        responseBodies.forPage(page, projection, FootballController.acceptsGzip(acceptEncoding)),
+                        acceptEncoding));
+    }
+
+    @Operation(summary = "Get supported countries", description = "Returns the list of countries available for your API key.")
+    @ApiResponse(responseCode = "200", description = "Successful retrieval",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CountryDTO.class))))
+    @GetMapping("/countries")
+    public Mono<ResponseEntity<byte[]>> getCountries(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return footballApiService.getCountries()
+                .map(countries -> FootballController.encoded(
+                        FootballController.withStaleness(footballApiService.getCountriesStaleness()),
+                        responseValidators.forEntry(CacheConfig.COUNTRIES_CACHE, SimpleKey.EMPTY),
+                        responseBodies.forCountries(countries), acceptEncoding));
+    }
+
+    @Operation(summary = "Get leagues by country", description = "Returns all leagues for a given country ID.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful retrieval",
+                content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = LeagueDTO.class)))),
+        @ApiResponse(responseCode = "404", description = "Country not found")
+    })
+    @GetMapping("/leagues")
+    public Mono<ResponseEntity<byte[]>> getLeagues(
+            @RequestParam String countryId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return footballApiService.getLeaguesByCountryId(countryId)
+                .map(leagues -> FootballController.encoded(
+                        FootballController.withStaleness(footballApiService.getLeaguesStaleness(countryId)),
+                        responseValidators.forEntry(CacheConfig.LEAGUES_CACHE, countryId),
+                        responseBodies.forLeagues(countryId, leagues), acceptEncoding));
+    }
+
+    @Operation(summary = "Search teams and leagues",
+            description = "Finds cached teams and leagues by partial, misspelled, abbreviated or accent-free names and "
+                    + "known aliases, best match first.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matches, possibly none",
+                content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = SearchResultDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Empty query, unknown type or limit out of range")
+    })
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<SearchResultDTO>>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(searchIndex.search(q, type, limit)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.footballapi.controller;
+
+import com.example.footballapi.exception.GlobalExceptionHandler;
+import com.example.footballapi.service.StandingsChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Standings change-feed over Server-Sent Events, served in both the blocking and the reactive mode.
+ */
+@RestController
+@RequestMapping("/api/football")
+@CrossOrigin(origins = {"http://localhost:4200", "http://127.0.0.1:4200"})
+public class StandingsFeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandingsFeedController.class);
+    private final StandingsChangeFeed changeFeed;
+    private final GlobalExceptionHandler exceptionHandler;
+
+    public StandingsFeedController(StandingsChangeFeed changeFeed, GlobalExceptionHandler exceptionHandler) {
+        this.changeFeed = changeFeed;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    @Operation(summary = "Subscribe to standings changes",
+            description = "Streams a 'snapshot' event with the current rows of the league (or only the team, when teamName "
+                    + "is given), then an 'update' event with just the changed rows whenever the standings are refreshed.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream"),
+        @ApiResponse(responseCode = "400", description = "Invalid input parameters"),
+        @ApiResponse(responseCode = "404", description = "Country, league, or team not found")
+    })
+    @GetMapping(value = "/standings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamStandings(
+            @RequestParam String countryName,
+            @RequestParam String leagueName,
+            @RequestParam(required = false) String teamName) {
+
+        logger.info("Received standings subscription: Country='{}', League='{}', Team='{}'",
+                countryName, leagueName, teamName);
+
+        if (countryName.trim().isEmpty() || leagueName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Country name and league name must not be empty.");
+        }
+        return changeFeed.subscribe(countryName, leagueName, teamName);
+    }
+
+    /**
+     * Country, league and team are resolved before the stream starts. The client accepts text/event-stream,
+     * which the JSON bodies of GlobalExceptionHandler cannot be written as, so such failures are answered
+     * here with GlobalExceptionHandler's status, body and headers (Retry-After included) and an explicit
+     * JSON content type.
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Object> handleSubscriptionError(RuntimeException ex) {
+        ResponseEntity<Object> response = exceptionHandler.handle(ex);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getBody());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.footballapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batch standings request. Without a team name the whole league table is returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStandingsItemDTO {
+
+    private String countryName;
+
+    private String leagueName;
+
+    private String teamName;
+
+}
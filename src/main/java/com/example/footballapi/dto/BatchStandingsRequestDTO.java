@@ -0,0 +1,14 @@
+package com.example.footballapi.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BatchStandingsRequestDTO {
+
+    private List<BatchStandingsItemDTO> items;
+
+}
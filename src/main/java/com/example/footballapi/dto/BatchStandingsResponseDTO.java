@@ -0,0 +1,16 @@
+package com.example.footballapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStandingsResponseDTO {
+
+    private List<BatchStandingsResultDTO> results;
+
+}
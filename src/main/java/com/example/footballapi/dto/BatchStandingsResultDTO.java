@@ -0,0 +1,26 @@
+package com.example.footballapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch item: either the matching standings or the error that the single-item
+ * endpoint would have answered with.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchStandingsResultDTO {
+
+    private BatchStandingsItemDTO request;
+
+    private int status;
+
+    private List<TeamStandingDTO> standings;
+
+    private String error;
+
+}
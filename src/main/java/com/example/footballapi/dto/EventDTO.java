@@ -0,0 +1,25 @@
+package com.example.footballapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EventDTO {
+
+    @JsonProperty("match_id")
+    private String matchId;
+
+    @JsonProperty("league_id")
+    private String leagueId;
+
+    @JsonProperty("match_status")
+    private String matchStatus;
+
+    @JsonProperty("match_live")
+    private String matchLive;
+
+}
@@ -0,0 +1,28 @@
+package com.example.footballapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A standings row with its rank in the requested order and the derived goal difference, which is left
+ * out when the upstream did not report both goal counts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RankedStandingDTO {
+
+    private int rank;
+
+    @JsonUnwrapped
+    private TeamStandingDTO standing;
+
+    @JsonProperty("goal_difference")
+    private Integer goalDifference;
+
+}
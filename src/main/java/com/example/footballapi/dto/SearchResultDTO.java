@@ -0,0 +1,33 @@
+package com.example.footballapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One hit of the team and league search. {@code leagueId} and {@code leagueName} are the league itself
+ * for a league, and the league whose table lists the team for a team. {@code score} is in (0, 1], 1 for
+ * an exact name or alias match.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResultDTO {
+
+    private String type;
+
+    private String id;
+
+    private String name;
+
+    private String countryName;
+
+    private String leagueId;
+
+    private String leagueName;
+
+    private double score;
+
+}
@@ -3,6 +3,7 @@ package com.example.footballapi.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -38,6 +39,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Object> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        logger.warn("External API call not attempted: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "Error communicating with the external football API.");
+        body.put("details", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000)))
+                .body(body);
+    }
+
     @ExceptionHandler(HttpClientErrorException.class)
     public ResponseEntity<Object> handleHttpClientErrorException(HttpClientErrorException ex) {
         logger.warn("HTTP Client Error: {} - Body: {}", ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
@@ -79,6 +91,35 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Answers {@code ex} as the matching handler above would, for a controller whose own exception
+     * handler takes precedence but should keep the same bodies and headers.
+     */
+    public ResponseEntity<Object> handle(Exception ex) {
+        if (ex instanceof ResourceNotFoundException e) {
+            return handleResourceNotFoundException(e);
+        }
+        if (ex instanceof UpstreamUnavailableException e) {
+            return handleUpstreamUnavailableException(e);
+        }
+        if (ex instanceof ExternalApiException e) {
+            return handleExternalApiException(e);
+        }
+        if (ex instanceof HttpClientErrorException e) {
+            return handleHttpClientErrorException(e);
+        }
+        if (ex instanceof ResourceAccessException e) {
+            return handleResourceAccessException(e);
+        }
+        if (ex instanceof MissingServletRequestParameterException e) {
+            return handleMissingServletRequestParameterException(e);
+        }
+        if (ex instanceof IllegalArgumentException e) {
+            return handleIllegalArgumentException(e);
+        }
+        return handleGenericException(ex);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGenericException(Exception ex) {
         logger.error("An unexpected error occurred: {}", ex.getMessage(), ex);
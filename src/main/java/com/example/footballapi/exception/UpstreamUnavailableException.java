@@ -0,0 +1,21 @@
+package com.example.footballapi.exception;
+
+import java.time.Duration;
+
+/**
+ * The football data service was not called because it is known to be failing or already saturated.
+ * {@code retryAfter} is when a new attempt makes sense; it is sent to clients as {@code Retry-After}.
+ */
+public class UpstreamUnavailableException extends ExternalApiException {
+
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
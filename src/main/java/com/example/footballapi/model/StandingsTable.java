@@ -0,0 +1,261 @@
+package com.example.footballapi.model;
+
+import com.example.footballapi.dto.TeamStandingDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact, typed representation of one league's standings as held in the cache.
+ *
+ * Columns are stored as parallel arrays (one entry per team, in upstream order) with the numeric
+ * columns parsed to {@code int} once when the table is built. Country and league metadata, which the
+ * upstream repeats on every row, is kept once per table and interned. {@link TeamStandingDTO}s are
+ * only created at the edge, when a row is returned to a client.
+ */
+public final class StandingsTable {
+
+    /** Stored for numeric cells the upstream left empty or non-numeric; rendered back as "". */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final StandingsTable EMPTY = new StandingsTable(null, null, null, 0);
+
+    private final String countryName;
+    private final String leagueId;
+    private final String leagueName;
+
+    private final String[] teamIds;
+    private final String[] teamNames;
+    private final int[] position;
+    private final int[] played;
+    private final int[] won;
+    private final int[] drawn;
+    private final int[] lost;
+    private final int[] goalsFor;
+    private final int[] goalsAgainst;
+    private final int[] points;
+
+    private StandingsTable(String countryName, String leagueId, String leagueName, int size) {
+        this.countryName = countryName;
+        this.leagueId = leagueId;
+        this.leagueName = leagueName;
+        this.teamIds = new String[size];
+        this.teamNames = new String[size];
+        this.position = new int[size];
+        this.played = new int[size];
+        this.won = new int[size];
+        this.drawn = new int[size];
+        this.lost = new int[size];
+        this.goalsFor = new int[size];
+        this.goalsAgainst = new int[size];
+        this.points = new int[size];
+    }
+
+    private StandingsTable(Builder builder) {
+        this.countryName = builder.countryName;
+        this.leagueId = builder.leagueId;
+        this.leagueName = builder.leagueName;
+        int size = builder.size;
+        this.teamIds = Arrays.copyOf(builder.teamIds, size);
+        this.teamNames = Arrays.copyOf(builder.teamNames, size);
+        this.position = Arrays.copyOf(builder.columns[0], size);
+        this.played = Arrays.copyOf(builder.columns[1], size);
+        this.won = Arrays.copyOf(builder.columns[2], size);
+        this.drawn = Arrays.copyOf(builder.columns[3], size);
+        this.lost = Arrays.copyOf(builder.columns[4], size);
+        this.goalsFor = Arrays.copyOf(builder.columns[5], size);
+        this.goalsAgainst = Arrays.copyOf(builder.columns[6], size);
+        this.points = Arrays.copyOf(builder.columns[7], size);
+    }
+
+    public static StandingsTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Starts a table that is filled row by row while the upstream response is being read.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return teamIds.length;
+    }
+
+    public boolean isEmpty() {
+        return teamIds.length == 0;
+    }
+
+    public String getCountryName() { return countryName; }
+    public String getLeagueId() { return leagueId; }
+    public String getLeagueName() { return leagueName; }
+
+    public String teamId(int row) { return teamIds[row]; }
+    public String teamName(int row) { return teamNames[row]; }
+    public int position(int row) { return position[row]; }
+    public int played(int row) { return played[row]; }
+    public int won(int row) { return won[row]; }
+    public int drawn(int row) { return drawn[row]; }
+    public int lost(int row) { return lost[row]; }
+    public int goalsFor(int row) { return goalsFor[row]; }
+    public int goalsAgainst(int row) { return goalsAgainst[row]; }
+    public int points(int row) { return points[row]; }
+
+    /**
+     * Numeric cell of a row by index, in {@link Builder#NUMERIC_CELLS} order.
+     */
+    public int cell(int row, int cell) {
+        return switch (cell) {
+            case 0 -> position[row];
+            case 1 -> played[row];
+            case 2 -> won[row];
+            case 3 -> drawn[row];
+            case 4 -> lost[row];
+            case 5 -> goalsFor[row];
+            case 6 -> goalsAgainst[row];
+            case 7 -> points[row];
+            default -> throw new IndexOutOfBoundsException(cell);
+        };
+    }
+
+    /**
+     * Converts a single row to the external JSON shape.
+     */
+    public TeamStandingDTO toDto(int row) {
+        TeamStandingDTO dto = new TeamStandingDTO();
+        dto.setCountryName(countryName);
+        dto.setLeagueId(leagueId);
+        dto.setLeagueName(leagueName);
+        dto.setTeamId(teamIds[row]);
+        dto.setTeamName(teamNames[row]);
+        dto.setOverallLeaguePosition(format(position[row]));
+        dto.setOverallLeaguePlayed(format(played[row]));
+        dto.setOverallLeagueW(format(won[row]));
+        dto.setOverallLeagueD(format(drawn[row]));
+        dto.setOverallLeagueL(format(lost[row]));
+        dto.setOverallLeagueGF(format(goalsFor[row]));
+        dto.setOverallLeagueGA(format(goalsAgainst[row]));
+        dto.setOverallLeaguePTS(format(points[row]));
+        return dto;
+    }
+
+    /**
+     * Converts the whole table to the external JSON shape, in upstream order.
+     */
+    public List<TeamStandingDTO> toDtos() {
+        if (isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<TeamStandingDTO> dtos = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            dtos.add(toDto(i));
+        }
+        return dtos;
+    }
+
+    /**
+     * Rows of this table that are new or differ from the row of the same team in {@code previous}.
+     */
+    public int[] changedRows(StandingsTable previous) {
+        Map<String, Integer> previousRows = new HashMap<>(previous.size() * 2);
+        for (int i = 0; i < previous.size(); i++) {
+            previousRows.put(previous.teamIds[i], i);
+        }
+        int[] changed = new int[size()];
+        int count = 0;
+        for (int i = 0; i < size(); i++) {
+            Integer p = previousRows.get(teamIds[i]);
+            if (p == null || !sameRow(i, previous, p)) {
+                changed[count++] = i;
+            }
+        }
+        return Arrays.copyOf(changed, count);
+    }
+
+    private boolean sameRow(int row, StandingsTable other, int otherRow) {
+        return Objects.equals(teamNames[row], other.teamNames[otherRow])
+                && position[row] == other.position[otherRow]
+                && played[row] == other.played[otherRow]
+                && won[row] == other.won[otherRow]
+                && drawn[row] == other.drawn[otherRow]
+                && lost[row] == other.lost[otherRow]
+                && goalsFor[row] == other.goalsFor[otherRow]
+                && goalsAgainst[row] == other.goalsAgainst[otherRow]
+                && points[row] == other.points[otherRow];
+    }
+
+    private static String format(int value) {
+        return value == MISSING ? "" : Integer.toString(value);
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    /**
+     * Row-by-row construction without intermediate DTOs. Columns grow as rows are added and are
+     * trimmed to size by {@link #build()}.
+     */
+    public static final class Builder {
+
+        /** Number of numeric cells per row, in the order position, played, won, drawn, lost, GF, GA, points. */
+        public static final int NUMERIC_CELLS = 8;
+
+        private String countryName;
+        private String leagueId;
+        private String leagueName;
+        private String[] teamIds = new String[24];
+        private String[] teamNames = new String[24];
+        private int[][] columns = new int[NUMERIC_CELLS][24];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Whether table metadata still has to be provided, i.e. no row with metadata has been read yet.
+         */
+        public boolean needsMetadata() {
+            return leagueId == null;
+        }
+
+        public Builder metadata(String countryName, String leagueId, String leagueName) {
+            this.countryName = intern(countryName);
+            this.leagueId = intern(leagueId);
+            this.leagueName = intern(leagueName);
+            return this;
+        }
+
+        /**
+         * Appends a row. {@code cells} holds the numeric columns in {@link #NUMERIC_CELLS} order, with
+         * {@link StandingsTable#MISSING} for empty values; the array is not retained and may be reused by the caller.
+         */
+        public Builder addRow(String teamId, String teamName, int[] cells) {
+            if (size == teamIds.length) {
+                int capacity = size * 2;
+                teamIds = Arrays.copyOf(teamIds, capacity);
+                teamNames = Arrays.copyOf(teamNames, capacity);
+                for (int c = 0; c < NUMERIC_CELLS; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], capacity);
+                }
+            }
+            teamIds[size] = teamId;
+            teamNames[size] = teamName;
+            for (int c = 0; c < NUMERIC_CELLS; c++) {
+                columns[c][size] = cells[c];
+            }
+            size++;
+            return this;
+        }
+
+        public StandingsTable build() {
+            return size == 0 ? EMPTY : new StandingsTable(this);
+        }
+    }
+}
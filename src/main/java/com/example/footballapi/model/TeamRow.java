@@ -0,0 +1,13 @@
+package com.example.footballapi.model;
+
+import com.example.footballapi.dto.TeamStandingDTO;
+
+/**
+ * A team resolved to its row in a cached league table, before it is turned into a DTO.
+ */
+public record TeamRow(String leagueId, StandingsTable table, int row) {
+
+    public TeamStandingDTO toDto() {
+        return table.toDto(row);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.UpstreamRateLimiter;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.exception.ExternalApiException;
+import com.example.footballapi.model.StandingsTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Raw access to the APIFootball upstream. Every method performs a live HTTP call;
+ * caching is layered on top by {@link FootballApiService}.
+ * Standings and league loads are coalesced per key so concurrent misses share one call.
+ * Responses are decoded as they stream in by {@link ApiFootballJsonDecoder}.
+ */
+@Component
+public class ApiFootballClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiFootballClient.class);
+
+    private final RestTemplate restTemplate;
+    private final ApiFootballJsonDecoder decoder;
+    private final RequestCoalescer<String, StandingsTable> standingsLoads;
+    private final RequestCoalescer<String, List<LeagueDTO>> leagueLoads;
+
+    @Value("${apifootball.api.url}")
+    private String apiUrlBase;
+
+    @Value("${apifootball.api.key}")
+    private String apiKey;
+
+    public ApiFootballClient(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             UpstreamRateLimiter rateLimiter) {
+        this.restTemplate = restTemplate;
+        this.decoder = new ApiFootballJsonDecoder(objectMapper);
+        this.standingsLoads = new RequestCoalescer<>("get_standings", meterRegistry, rateLimiter::currentPriority);
+        this.leagueLoads = new RequestCoalescer<>("get_leagues", meterRegistry, rateLimiter::currentPriority);
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty() && !"YOUR_API_KEY_HERE".equals(apiKey);
+    }
+
+    /**
+     * Fetches all leagues from APIFootball. This might be a large dataset.
+     */
+    public List<LeagueDTO> fetchAllLeagues() {
+        logger.info("Fetching all leagues from API. This might be slow and data-intensive.");
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                .queryParam("action", "get_leagues")
+                .queryParam("APIkey", apiKey);
+        String url = uriBuilder.toUriString();
+        logger.debug("Fetching leagues from URL: {}", url);
+
+        return fetch("leagues", url, response -> decoder.readLeagues(response.getBody(), league -> true));
+    }
+
+    /**
+     * Fetches standings for a given league ID.
+     */
+    public StandingsTable fetchStandings(String leagueId) {
+        return standingsLoads.load(leagueId, () -> {
+            logger.info("Fetching standings for leagueId: {}", leagueId);
+            String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                    .queryParam("action", "get_standings")
+                    .queryParam("league_id", leagueId)
+                    .queryParam("APIkey", apiKey)
+                    .toUriString();
+
+            StandingsTable standings = fetch("standings", url, response -> decoder.readStandings(response.getBody()));
+            if (standings == null || standings.isEmpty()) {
+                logger.warn("No standings found or returned null for leagueId: {}", leagueId);
+                return StandingsTable.empty();
+            }
+            return standings;
+        });
+    }
+
+    /**
+     * Fetches all leagues for a given country_id.
+     */
+    public List<LeagueDTO> fetchLeagues(String countryId) {
+        return leagueLoads.load(countryId, () -> {
+            String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                    .queryParam("action", "get_leagues")
+                    .queryParam("country_id", countryId)
+                    .queryParam("APIkey", apiKey)
+                    .toUriString();
+
+            // Only the requested country's leagues are kept, whatever else the upstream sends.
+            List<LeagueDTO> leagues = fetch("leagues", url, response -> decoder.readLeagues(response.getBody(),
+                    league -> countryId.equals(league.getCountryId())));
+            return leagues != null ? leagues : Collections.emptyList();
+        });
+    }
+
+    /**
+     * Fetches all countries.
+     */
+    public List<CountryDTO> fetchCountries() {
+        String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                .queryParam("action", "get_countries")
+                .queryParam("APIkey", apiKey)
+                .toUriString();
+
+        // Countries the API key does not cover are dropped while reading.
+        List<CountryDTO> countries = fetch("countries", url, response -> decoder.readCountries(response.getBody(),
+                country -> FootballApiService.isSupported(country.getCountryName())));
+        return countries != null ? countries : Collections.emptyList();
+    }
+
+    /**
+     * Fetches today's live events and returns the distinct league IDs they belong to.
+     */
+    public Set<String> fetchLiveLeagueIds() {
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                .queryParam("action", "get_events")
+                .queryParam("from", today)
+                .queryParam("to", today)
+                .queryParam("match_live", "1")
+                .queryParam("APIkey", apiKey)
+                .toUriString();
+
+        // APIFootball answers "no event found" with an error object, which is reported as an ExternalApiException.
+        Set<String> leagueIds = fetch("live events", url, response -> decoder.readEventLeagueIds(response.getBody()));
+        return leagueIds != null ? leagueIds : Collections.emptySet();
+    }
+
+    /**
+     * GETs {@code url} and decodes the response, reporting failures as {@link #upstreamFailure} does.
+     */
+    private <T> T fetch(String what, String url, ResponseExtractor<T> extractor) {
+        try {
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)), extractor);
+        } catch (Exception e) {
+            throw upstreamFailure(what, e);
+        }
+    }
+
+    /**
+     * A failed call for {@code what} (e.g. "standings") as the exception it is answered with. An upstream 4xx stays
+     * an {@link HttpClientErrorException}, so its status and APIFootball error are passed on to the caller; anything
+     * else (5xx, I/O errors such as a timeout, undecodable bodies) becomes an {@link ExternalApiException} (503).
+     * One that already is an ExternalApiException, such as an open circuit, is kept as it is.
+     */
+    static RuntimeException upstreamFailure(String what, Throwable e) {
+        if (e instanceof ExternalApiException || e instanceof HttpClientErrorException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof HttpStatusCodeException status) {
+            logger.error("{} fetching {}: {} - {}", e.getClass().getSimpleName(), what, status.getStatusCode(),
+                    status.getResponseBodyAsString(), e);
+            return new ExternalApiException("Error fetching " + what + " from API: " + status.getResponseBodyAsString(), e);
+        }
+        if (e instanceof ResourceAccessException) { // I/O errors like connection timeout
+            logger.error("ResourceAccessException fetching {}: {}", what, e.getMessage(), e);
+            return new ExternalApiException("Failed to connect to " + what + " API: " + e.getMessage(), e);
+        }
+        logger.error("Unexpected error fetching {}", what, e);
+        return new ExternalApiException("An unexpected error occurred while fetching " + what + ".", e);
+    }
+}
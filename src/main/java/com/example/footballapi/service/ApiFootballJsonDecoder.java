@@ -0,0 +1,385 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.dto.ApiErrorResponseDTO;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.EventDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.exception.ExternalApiException;
+import com.example.footballapi.model.StandingsTable;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Streaming decoder for APIFootball responses, reading the Jackson token stream straight from the
+ * response body.
+ *
+ * Only the fields the service uses are materialized; everything else (logos, badges, home/away
+ * columns, ...) is skipped without being decoded. Records rejected by a filter are dropped as they
+ * are read, and standings go directly into {@link StandingsTable} columns, with numeric cells parsed
+ * from the parser's character buffer, so the allocation per response is proportional to what is kept
+ * rather than to the payload.
+ *
+ * APIFootball reports errors as a JSON object ({@code {"error": 404, "message": "..."}}) where an
+ * array is expected; that is surfaced as an {@link ExternalApiException} carrying the upstream message.
+ */
+public final class ApiFootballJsonDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    public ApiFootballJsonDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public List<CountryDTO> readCountries(InputStream body, Predicate<CountryDTO> filter) throws IOException {
+        return read(body, new CountryRecords(filter));
+    }
+
+    public List<LeagueDTO> readLeagues(InputStream body, Predicate<LeagueDTO> filter) throws IOException {
+        return read(body, new LeagueRecords(filter));
+    }
+
+    /**
+     * Reads {@code get_standings} into a table. Country and league metadata are only decoded from the first row.
+     */
+    public StandingsTable readStandings(InputStream body) throws IOException {
+        return read(body, new StandingsRecords());
+    }
+
+    /**
+     * Reads {@code get_events} into the distinct league IDs of its events.
+     */
+    public Set<String> readEventLeagueIds(InputStream body) throws IOException {
+        return read(body, new EventLeagueRecords());
+    }
+
+    /**
+     * Same as {@link #readCountries}, for a body that arrives in chunks.
+     */
+    public IncrementalReader<List<CountryDTO>> countriesReader(Predicate<CountryDTO> filter) throws IOException {
+        return new IncrementalReader<>(new CountryRecords(filter));
+    }
+
+    /**
+     * Same as {@link #readLeagues}, for a body that arrives in chunks.
+     */
+    public IncrementalReader<List<LeagueDTO>> leaguesReader(Predicate<LeagueDTO> filter) throws IOException {
+        return new IncrementalReader<>(new LeagueRecords(filter));
+    }
+
+    /**
+     * Same as {@link #readStandings}, for a body that arrives in chunks.
+     */
+    public IncrementalReader<StandingsTable> standingsReader() throws IOException {
+        return new IncrementalReader<>(new StandingsRecords());
+    }
+
+    private <T> T read(InputStream body, Records<T> records) throws IOException {
+        try (JsonParser parser = openArray(body)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                records.read(parser);
+            }
+        }
+        return records.result();
+    }
+
+    /**
+     * Collects the records of one response; {@link #read} is called with the parser on each record's START_OBJECT.
+     */
+    private interface Records<T> {
+
+        void read(JsonParser parser) throws IOException;
+
+        T result();
+    }
+
+    private final class EventLeagueRecords implements Records<Set<String>> {
+
+        private final Set<String> leagueIds = new HashSet<>();
+
+        @Override
+        public void read(JsonParser parser) throws IOException {
+            EventDTO event = objectMapper.readValue(parser, EventDTO.class);
+            if (event.getLeagueId() != null) {
+                leagueIds.add(event.getLeagueId());
+            }
+        }
+
+        @Override
+        public Set<String> result() {
+            return leagueIds;
+        }
+    }
+
+    private static final class CountryRecords implements Records<List<CountryDTO>> {
+
+        private final Predicate<CountryDTO> filter;
+        private final List<CountryDTO> countries = new ArrayList<>();
+
+        CountryRecords(Predicate<CountryDTO> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public void read(JsonParser parser) throws IOException {
+            CountryDTO country = new CountryDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "country_id" -> country.setCountryId(parser.getValueAsString());
+                    case "country_name" -> country.setCountryName(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            if (filter.test(country)) {
+                countries.add(country);
+            }
+        }
+
+        @Override
+        public List<CountryDTO> result() {
+            return countries;
+        }
+    }
+
+    private static final class LeagueRecords implements Records<List<LeagueDTO>> {
+
+        private final Predicate<LeagueDTO> filter;
+        private final List<LeagueDTO> leagues = new ArrayList<>();
+
+        LeagueRecords(Predicate<LeagueDTO> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public void read(JsonParser parser) throws IOException {
+            LeagueDTO league = new LeagueDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "league_id" -> league.setLeagueId(parser.getValueAsString());
+                    case "league_name" -> league.setLeagueName(parser.getValueAsString());
+                    case "country_id" -> league.setCountryId(parser.getValueAsString());
+                    case "country_name" -> league.setCountryName(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            if (filter.test(league)) {
+                leagues.add(league);
+            }
+        }
+
+        @Override
+        public List<LeagueDTO> result() {
+            return leagues;
+        }
+    }
+
+    private static final class StandingsRecords implements Records<StandingsTable> {
+
+        private final StandingsTable.Builder table = StandingsTable.builder();
+        private final int[] cells = new int[StandingsTable.Builder.NUMERIC_CELLS];
+
+        @Override
+        public void read(JsonParser parser) throws IOException {
+            boolean readMetadata = table.needsMetadata();
+            String countryName = null;
+            String leagueId = null;
+            String leagueName = null;
+            String teamId = null;
+            String teamName = null;
+            Arrays.fill(cells, StandingsTable.MISSING);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "country_name" -> countryName = readMetadata ? parser.getValueAsString() : null;
+                    case "league_id" -> leagueId = readMetadata ? parser.getValueAsString() : null;
+                    case "league_name" -> leagueName = readMetadata ? parser.getValueAsString() : null;
+                    case "team_id" -> teamId = parser.getValueAsString();
+                    case "team_name" -> teamName = parser.getValueAsString();
+                    case "overall_league_position" -> cells[0] = readInt(parser);
+                    case "overall_league_payed" -> cells[1] = readInt(parser);
+                    case "overall_league_W" -> cells[2] = readInt(parser);
+                    case "overall_league_D" -> cells[3] = readInt(parser);
+                    case "overall_league_L" -> cells[4] = readInt(parser);
+                    case "overall_league_GF" -> cells[5] = readInt(parser);
+                    case "overall_league_GA" -> cells[6] = readInt(parser);
+                    case "overall_league_PTS" -> cells[7] = readInt(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (readMetadata) {
+                table.metadata(countryName, leagueId, leagueName);
+            }
+            table.addRow(teamId, teamName, cells);
+        }
+
+        @Override
+        public StandingsTable result() {
+            return table.build();
+        }
+    }
+
+    /**
+     * Decodes a response that is fed in chunks as they arrive, on Jackson's non-blocking parser. Only
+     * the array element being read is buffered (as tokens) and it is handed to the same record readers
+     * as the blocking path once complete, so memory is bounded by the largest record, not the payload.
+     * Not thread-safe; feed from one subscriber.
+     */
+    public final class IncrementalReader<T> {
+
+        private final Records<T> records;
+        private final JsonParser parser;
+        private boolean started;
+        private boolean done;
+        private boolean error;
+        private TokenBuffer element;
+        private int depth;
+
+        private IncrementalReader(Records<T> records) throws IOException {
+            this.records = records;
+            this.parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+        }
+
+        /**
+         * Decodes as much of {@code chunk} as possible. The buffer is fully consumed on return.
+         */
+        public void feed(ByteBuffer chunk) throws IOException {
+            ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk);
+            drain();
+        }
+
+        /**
+         * Ends the input and returns the decoded result. An empty body is read as an empty array.
+         */
+        public T finish() throws IOException {
+            try (parser) {
+                ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                drain();
+                if (element != null) {
+                    throw new JsonParseException(parser, "Unexpected end of APIFootball response");
+                }
+            }
+            return records.result();
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (done) {
+                    continue; // Like the blocking path, whatever follows the records is not read
+                }
+                if (!started) {
+                    started = true;
+                    if (token == JsonToken.START_ARRAY) {
+                        continue;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new ExternalApiException("Unexpected APIFootball response starting with " + token);
+                    }
+                    error = true;
+                } else if (element == null && token != JsonToken.START_OBJECT) {
+                    done = true;
+                    continue;
+                }
+                if (element == null) {
+                    element = new TokenBuffer(parser);
+                }
+                element.copyCurrentEvent(parser);
+                depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+                if (depth == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void complete() throws IOException {
+            try (JsonParser record = element.asParser(objectMapper)) {
+                element = null;
+                record.nextToken();
+                if (error) {
+                    throw upstreamError(record);
+                }
+                records.read(record);
+            }
+        }
+    }
+
+    /**
+     * Reads a numeric cell, which APIFootball sends as a string. Parsed in place from the parser's
+     * buffer; empty or non-numeric values give {@link StandingsTable#MISSING}.
+     */
+    private static int readInt(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return StandingsTable.MISSING;
+        }
+        char[] text = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+        while (start < end && Character.isWhitespace(text[start])) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text[end - 1])) {
+            end--;
+        }
+        boolean negative = start < end && text[start] == '-';
+        if (start < end && (text[start] == '-' || text[start] == '+')) {
+            start++;
+        }
+        if (start == end || end - start > 9) { // Longer values are not plausible table cells
+            return StandingsTable.MISSING;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return StandingsTable.MISSING;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Positions the parser inside the top-level array, or fails with the upstream error message.
+     * An empty body is read as an empty array.
+     */
+    private JsonParser openArray(InputStream body) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        JsonToken first = parser.nextToken();
+        if (first == null || first == JsonToken.START_ARRAY) {
+            return parser;
+        }
+        try (parser) {
+            if (first == JsonToken.START_OBJECT) {
+                throw upstreamError(parser);
+            }
+            throw new ExternalApiException("Unexpected APIFootball response starting with " + first);
+        }
+    }
+
+    private ExternalApiException upstreamError(JsonParser parser) throws IOException {
+        ApiErrorResponseDTO error = objectMapper.readValue(parser, ApiErrorResponseDTO.class);
+        return new ExternalApiException("APIFootball returned an error: " + error.getMessage());
+    }
+}
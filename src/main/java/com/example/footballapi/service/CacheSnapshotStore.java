@@ -0,0 +1,271 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheValueCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persists the country, league and standings caches to a compact versioned file and restores
+ * them at boot, so a restarted instance can answer from the last known data without the network.
+ *
+ * File layout: magic, format version, write timestamp, then one section per cache
+ * (name, entry count, key + write time + value per entry in the {@link CacheValueCodec} form),
+ * followed by a CRC32 of everything before it.
+ * The file is replaced atomically on each write. On restore the whole file is read and its checksum
+ * verified before it is decoded, and every count in it is checked against the bytes left, so a corrupt
+ * file is rejected before anything is allocated for it or put into the caches; a missing, corrupt or
+ * incompatible file means a cold start. Restored entries keep the age they had when the snapshot was
+ * written plus the time since, so a restart does not make old data look fresh; entries past the
+ * max-staleness are left out.
+ */
+@Component
+public class CacheSnapshotStore implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotStore.class);
+
+    private static final int MAGIC = 0x46424353; // "FBCS"
+    private static final int FORMAT_VERSION = 3; // 2: standings stored as StandingsTable columns, 3: per-entry write time
+    private static final List<String> CACHE_NAMES = List.of(
+            CacheConfig.COUNTRIES_CACHE, CacheConfig.LEAGUES_CACHE, CacheConfig.STANDINGS_BY_LEAGUE_CACHE);
+
+    private final CacheManager cacheManager;
+    // Not synchronized: the file I/O under it would pin a virtual carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    // Values as of the last write; compared by identity since refreshed entries are new list instances.
+    private Map<String, Map<Object, Entry>> lastWritten = Map.of();
+    private volatile boolean restored;
+
+    @Value("${app.snapshot.enabled:true}")
+    private boolean enabled;
+
+    private final Path path;
+
+    public CacheSnapshotStore(CacheManager cacheManager,
+                              @Value("${app.snapshot.path:data/cache-snapshot.bin}") String path) {
+        this.cacheManager = cacheManager;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    /**
+     * Whether the caches were populated from a snapshot at boot.
+     */
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * Writes a new snapshot if any cache entry changed since the last write.
+     */
+    @Scheduled(initialDelayString = "${app.snapshot.flush-interval:PT1M}",
+            fixedDelayString = "${app.snapshot.flush-interval:PT1M}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            Map<String, Map<Object, Entry>> current = capture();
+            if (sameEntries(current, lastWritten)) {
+                return;
+            }
+            write(current);
+            lastWritten = current;
+        } catch (IOException e) {
+            logger.warn("Could not write cache snapshot to {}: {}", path, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void restore() {
+        lock.lock();
+        try {
+            doRestore();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doRestore() {
+        if (!Files.exists(path)) {
+            logger.info("No cache snapshot at {}; starting cold", path);
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, Map<Object, Entry>> sections;
+        long writtenAt;
+        try {
+            byte[] file = Files.readAllBytes(path);
+            int payload = file.length - Long.BYTES;
+            CRC32 crc = new CRC32();
+            if (payload >= 0) {
+                crc.update(file, 0, payload);
+            }
+            if (payload < 0 || ByteBuffer.wrap(file, payload, Long.BYTES).getLong() != crc.getValue()) {
+                logger.warn("Cache snapshot {} failed checksum validation; starting cold", path);
+                return;
+            }
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(file, 0, payload));
+            if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION) {
+                logger.warn("Cache snapshot {} has an unknown format; starting cold", path);
+                return;
+            }
+            writtenAt = data.readLong();
+            sections = new LinkedHashMap<>();
+            for (int i = 0; i < CACHE_NAMES.size(); i++) {
+                String cacheName = data.readUTF();
+                sections.put(cacheName, readSection(cacheName, data));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cache snapshot {} is unreadable ({}); starting cold", path, e.toString());
+            return;
+        }
+
+        int entries = 0;
+        int expired = 0;
+        for (Map.Entry<String, Map<Object, Entry>> section : sections.entrySet()) {
+            if (cacheManager.getCache(section.getKey()) instanceof CacheConfig.RefreshAheadCaffeineCache cache) {
+                for (Map.Entry<Object, Entry> entry : section.getValue().entrySet()) {
+                    // Entries another instance already shared are newer than the snapshot.
+                    cache.putIfAbsent(entry.getKey(), entry.getValue().value(), entry.getValue().writtenAtMillis());
+                    if (cache.ageOf(entry.getKey()).isPresent()) {
+                        entries++;
+                    } else {
+                        expired++;
+                    }
+                }
+            }
+        }
+        lastWritten = capture();
+        restored = entries > 0;
+        logger.info("Restored {} cache entries ({} past max-staleness left out) from snapshot written at {} in {} ms",
+                entries, expired, Instant.ofEpochMilli(writtenAt), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void write(Map<String, Map<Object, Entry>> sections) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "cache-snapshot", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                CRC32 crc = new CRC32();
+                DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, crc));
+                data.writeInt(MAGIC);
+                data.writeInt(FORMAT_VERSION);
+                data.writeLong(System.currentTimeMillis());
+                for (String cacheName : CACHE_NAMES) {
+                    data.writeUTF(cacheName);
+                    writeSection(cacheName, sections.getOrDefault(cacheName, Map.of()), data);
+                }
+                data.flush();
+                new DataOutputStream(out).writeLong(crc.getValue());
+                out.flush();
+                // On disk before the rename, or a crash could leave a renamed snapshot without its data
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        logger.debug("Wrote cache snapshot to {}", path);
+    }
+
+    private Map<String, Map<Object, Entry>> capture() {
+        Map<String, Map<Object, Entry>> sections = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (String cacheName : CACHE_NAMES) {
+            if (cacheManager.getCache(cacheName) instanceof CacheConfig.RefreshAheadCaffeineCache cache) {
+                Map<Object, Entry> entries = new HashMap<>();
+                cache.getNativeCache().asMap().forEach((key, value) -> cache.ageOf(key).ifPresent(age ->
+                        entries.put(key, new Entry(value, now - age.toMillis()))));
+                sections.put(cacheName, entries);
+            }
+        }
+        return sections;
+    }
+
+    private static boolean sameEntries(Map<String, Map<Object, Entry>> a, Map<String, Map<Object, Entry>> b) {
+        for (String cacheName : CACHE_NAMES) {
+            Map<Object, Entry> x = a.getOrDefault(cacheName, Map.of());
+            Map<Object, Entry> y = b.getOrDefault(cacheName, Map.of());
+            if (x.size() != y.size()) {
+                return false;
+            }
+            for (Map.Entry<Object, Entry> entry : x.entrySet()) {
+                Entry other = y.get(entry.getKey());
+                if (other == null || other.value() != entry.getValue().value()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void writeSection(String cacheName, Map<Object, Entry> entries, DataOutputStream out) throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<Object, Entry> entry : entries.entrySet()) {
+            // Keys are a country or league id, or SimpleKey.EMPTY for no-arg methods.
+            CacheValueCodec.writeString(out, entry.getKey() instanceof String key ? key : null);
+            out.writeLong(entry.getValue().writtenAtMillis());
+            CacheValueCodec.write(out, cacheName, entry.getValue().value());
+        }
+    }
+
+    private static Map<Object, Entry> readSection(String cacheName, DataInputStream in) throws IOException {
+        if (!CACHE_NAMES.contains(cacheName)) {
+            throw new IOException("Unexpected cache section '" + cacheName + "'");
+        }
+        // Null flag, write time and an empty value at least per entry
+        int entryCount = CacheValueCodec.readCount(in, 1 + Long.BYTES + Integer.BYTES);
+        Map<Object, Entry> entries = new HashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            String key = CacheValueCodec.readString(in);
+            long writtenAtMillis = in.readLong();
+            entries.put(key != null ? key : SimpleKey.EMPTY, new Entry(CacheValueCodec.read(in, cacheName), writtenAtMillis));
+        }
+        return entries;
+    }
+
+    /**
+     * A cached value and when it was written.
+     */
+    private record Entry(Object value, long writtenAtMillis) {
+    }
+}
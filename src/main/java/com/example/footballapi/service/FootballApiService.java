@@ -2,103 +2,293 @@ package com.example.footballapi.service;
 
 
 import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.TaskExecutors;
+import com.example.footballapi.dto.BatchStandingsItemDTO;
+import com.example.footballapi.dto.BatchStandingsResultDTO;
 import com.example.footballapi.dto.CountryDTO;
 import com.example.footballapi.dto.LeagueDTO;
 import com.example.footballapi.dto.TeamStandingDTO;
 import com.example.footballapi.exception.ExternalApiException;
 import com.example.footballapi.exception.ResourceNotFoundException;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.model.TeamRow;
+import com.example.footballapi.service.LookupStageTimers.Stage;
+import com.example.footballapi.service.StandingsRankings.Sort;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 @Service
 public class FootballApiService {
 
     private static final Logger logger = LoggerFactory.getLogger(FootballApiService.class);
 
-    private final RestTemplate restTemplate;
+    private final ApiFootballClient apiClient;
+    private final FootballLookupIndex lookupIndex;
+    private final CacheManager cacheManager;
+    private final LookupStageTimers stageTimers;
+    private final StandingsRankings rankings;
+    // Proxied reference to this bean so internal calls go through the cache interceptor. Looked up on use
+    // rather than injected @Lazy: AOT would generate the lazy proxy and the caching proxy under one class name.
+    private final Supplier<FootballApiService> self;
+    private final ExecutorService batchExecutor;
 
-    @Value("${apifootball.api.url}")
-    private String apiUrlBase;
-
-    @Value("${apifootball.api.key}")
-    private String apiKey;
-
-    @Value("${app.features.prefer-cache-over-live:false}")
-    private boolean preferCacheOverLive;
+    @Value("${app.batch.max-items:100}")
+    private int maxBatchItems;
 
     private static final List<String> SUPPORTED_COUNTRIES = Arrays.asList("England", "France");
 
-    public FootballApiService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public FootballApiService(ApiFootballClient apiClient, FootballLookupIndex lookupIndex,
+                              CacheManager cacheManager, LookupStageTimers stageTimers, StandingsRankings rankings,
+                              ObjectProvider<FootballApiService> self,
+                              @Value("${app.batch.max-concurrency:8}") int batchConcurrency,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.apiClient = apiClient;
+        this.lookupIndex = lookupIndex;
+        this.cacheManager = cacheManager;
+        this.stageTimers = stageTimers;
+        this.rankings = rankings;
+        this.self = SingletonSupplier.of(self::getObject);
+        this.batchExecutor = TaskExecutors.bounded("batch-", batchConcurrency, Integer.MAX_VALUE, virtualThreads);
     }
 
     /**
      * Main public method to get a specific team's standing.
+     * Country, league and team are resolved through {@link FootballLookupIndex} on top of the
+     * cached country, league and standings lists, so a warm request makes no upstream calls.
+     * Each step is timed as a {@link LookupStageTimers} stage.
      */
     public TeamStandingDTO getTeamStanding(String countryName, String leagueName, String teamName) {
-        if (!SUPPORTED_COUNTRIES.contains(countryName.trim())) {
+        return findTeamRow(countryName, leagueName, teamName).toDto();
+    }
+
+    /**
+     * Resolves a team to its row in the cached standings of its league, without creating the DTO.
+     */
+    public TeamRow findTeamRow(String countryName, String leagueName, String teamName) {
+        checkSupported(countryName);
+
+        // Step 1: Resolve the country ID from the country name.
+        String countryId = stageTimers.time(Stage.COUNTRY_RESOLVE, () -> getCountryIdByName(countryName));
+
+        // Step 2: Resolve the league ID within that country.
+        String leagueId = stageTimers.time(Stage.LEAGUE_RESOLVE, () -> findLeagueId(countryId, countryName, leagueName));
+
+        // Step 3: Get all standings for that league (through the proxy so the cache applies).
+        StandingsTable leagueStandings = stageTimers.time(Stage.STANDINGS_FETCH, () -> self.get().getStandingsTable(leagueId));
+
+        // Step 4: Look up the specific team.
+        return stageTimers.time(Stage.TEAM_FILTER, () -> lookupIndex.findTeamRow(leagueId, leagueStandings, teamName)
+                .map(row -> new TeamRow(leagueId, leagueStandings, row))
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Team '" + teamName + "' not found in league '" + leagueName + "'.")
+                ));
+    }
+
+    /**
+     * Resolves many (country, league, optional team) items in one call. Items are grouped by league so each
+     * distinct league's standings are loaded once, with the distinct leagues loaded concurrently.
+     * A failing item yields an error result with the status the single-item endpoint would have
+     * answered with, instead of failing the whole batch.
+     */
+    public List<BatchStandingsResultDTO> getBatchStandings(List<BatchStandingsItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item.");
+        }
+        if (items.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchItems + " items.");
+        }
+
+        // Step 1: Resolve every item to its league ID (countries and leagues come from the cache).
+        String[] leagueIds = new String[items.size()];
+        RuntimeException[] failures = new RuntimeException[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            BatchStandingsItemDTO item = items.get(i);
+            try {
+                if (item == null || isBlank(item.getCountryName()) || isBlank(item.getLeagueName())) {
+                    throw new IllegalArgumentException("Country name and league name must not be empty.");
+                }
+                checkSupported(item.getCountryName());
+                leagueIds[i] = findLeagueId(item.getCountryName(), item.getLeagueName());
+            } catch (RuntimeException e) {
+                failures[i] = e;
+            }
+        }
+
+        // Step 2: Load each distinct league once, in parallel.
+        Map<String, CompletableFuture<StandingsTable>> standingsByLeague = new HashMap<>();
+        for (String leagueId : leagueIds) {
+            if (leagueId != null) {
+                standingsByLeague.computeIfAbsent(leagueId, id ->
+                        CompletableFuture.supplyAsync(() -> self.get().getStandingsTable(id), batchExecutor));
+            }
+        }
+
+        // Step 3: Assemble one result per item, in request order.
+        List<BatchStandingsResultDTO> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchStandingsItemDTO item = items.get(i);
+            BatchStandingsResultDTO result = new BatchStandingsResultDTO();
+            result.setRequest(item);
+            try {
+                if (failures[i] != null) {
+                    throw failures[i];
+                }
+                StandingsTable standings = await(standingsByLeague.get(leagueIds[i]));
+                if (isBlank(item.getTeamName())) {
+                    result.setStandings(standings.toDtos());
+                } else {
+                    result.setStandings(List.of(lookupIndex.findTeamStanding(leagueIds[i], standings, item.getTeamName())
+                            .orElseThrow(() -> new ResourceNotFoundException(
+                                    "Team '" + item.getTeamName() + "' not found in league '" + item.getLeagueName() + "'."))));
+                }
+                result.setStatus(HttpStatus.OK.value());
+            } catch (RuntimeException e) {
+                logger.debug("Batch item {} failed: {}", item, e.getMessage());
+                result.setStatus(statusOf(e));
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * A league's table in {@code sort} order, ranks {@code from} to {@code to} (inclusive; null for the
+     * whole table), sliced from the orders {@link StandingsRankings} precomputed for the cached standings.
+     */
+    public StandingsRankings.Page getLeagueTable(String countryName, String leagueName, String sort, int from, Integer to) {
+        Sort order = Sort.fromParam(sort);
+        StandingsRankings.checkRange(from, to != null ? to : from);
+        checkSupported(countryName);
+        String leagueId = findLeagueId(countryName, leagueName);
+        return rankings.rank(leagueId, self.get().getStandingsTable(leagueId))
+                .page(order, from, to != null ? to : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Teams of every league of the supported countries ranked together in {@code sort} order, ranks
+     * {@code from} to {@code to}. Only leagues whose standings are cached are ranked (all of them once the
+     * prefetcher has run): a leaderboard request never fetches standings, so leagues the upstream has no
+     * standings for cannot turn every request into a fan-out of failing calls.
+     */
+    public StandingsRankings.Page getLeaderboard(String sort, int from, int to) {
+        Sort order = Sort.fromParam(sort);
+        rankings.checkLeaderboardRange(from, to);
+        List<LeagueDTO> leagues = new ArrayList<>();
+        for (String countryName : SUPPORTED_COUNTRIES) {
+            checkSupported(countryName);
+            leagues.addAll(self.get().getLeaguesByCountryId(getCountryIdByName(countryName)));
+        }
+        return rankings.leaderboard(getCachedStandings(leagues)).page(order, from, to);
+    }
+
+    /**
+     * The cached standings of those {@code leagues} that have some, without loading the others.
+     */
+    List<StandingsTable> getCachedStandings(List<LeagueDTO> leagues) {
+        Cache cache = cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE);
+        List<StandingsTable> tables = new ArrayList<>(leagues.size());
+        for (LeagueDTO league : leagues) {
+            StandingsTable table = cache != null ? cache.get(league.getLeagueId(), StandingsTable.class) : null;
+            if (table != null && !table.isEmpty()) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Resolves a league ID by country name and league name using the cached
+     * country and league lists.
+     */
+    protected String findLeagueId(String countryName, String leagueName) {
+        return findLeagueId(getCountryIdByName(countryName), countryName, leagueName);
+    }
+
+    private String findLeagueId(String countryId, String countryName, String leagueName) {
+        List<LeagueDTO> leagues = self.get().getLeaguesByCountryId(countryId);
+        return lookupIndex.findLeagueId(countryId, leagues, leagueName)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("League '" + leagueName + "' in country '" + countryName + "' not found.")
+                );
+    }
+
+    void checkSupported(String countryName) {
+        if (!isSupported(countryName)) {
             throw new ResourceNotFoundException("Country '" + countryName + "' is not supported by your API key.");
         }
-        if (apiKey == null || apiKey.isEmpty() || "YOUR_API_KEY_HERE".equals(apiKey)) {
+        if (!apiClient.isConfigured()) {
             logger.error("API Key is not configured. Please set apifootball.api.key in application.properties.");
             throw new ExternalApiException("API Key for football data service is not configured.");
         }
-        
-        // Step 1: Find the league ID using country name and league name.
-        // The API might allow direct search by country name for leagues, or you might need country_id first.
-        // Assuming APIFootball `get_leagues` can take `country_name` or you have a mapping.
-        // For simplicity, let's assume APIFootball `get_leagues` takes country_id,
-        // and you'd first need to resolve country_name to country_id (another API call or local map).
-        // Let's simplify here: assume we can find leagues by country name directly or we get all leagues and filter.
-        // A more robust solution might involve calling `get_countries` first if `country_id` is mandatory for `get_leagues`.
-
-        LeagueDTO targetLeague = findLeague(countryName, leagueName);
-        if (targetLeague == null) {
-            throw new ResourceNotFoundException("League '" + leagueName + "' in country '" + countryName + "' not found.");
-        }
+    }
 
-        // Step 2: Get all standings for that league.
-        List<TeamStandingDTO> leagueStandings = getStandingsByLeagueId(targetLeague.getLeagueId());
+    /**
+     * Whether {@code countryName} is one of the countries covered by the API key.
+     */
+    static boolean isSupported(String countryName) {
+        return countryName != null && SUPPORTED_COUNTRIES.contains(countryName.trim());
+    }
 
-        // Step 3: Filter for the specific team.
-        Optional<TeamStandingDTO> teamStandingOpt = leagueStandings.stream()
-                .filter(standing -> teamName.equalsIgnoreCase(standing.getTeamName()))
-                .findFirst();
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
 
-        return teamStandingOpt.orElseThrow(() ->
-                new ResourceNotFoundException("Team '" + teamName + "' not found in league '" + leagueName + "'.")
-        );
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     /**
-     * Finds a league by country name and league name.
-     * This is a simplified version. APIFootball might require country_id for get_leagues.
-     * If so, you'd first need to resolve country_name to country_id.
-     * Alternatively, if get_leagues doesn't support country_name filter,
-     * you might fetch all leagues (if feasible) or leagues for a country_id and then filter.
+     * Maps a failure to the HTTP status GlobalExceptionHandler would have used for it.
      */
-    protected LeagueDTO findLeague(String countryName, String leagueName) {
-        String countryId = getCountryIdByName(countryName);
-        List<LeagueDTO> leagues = getLeaguesByCountryId(countryId);
-        return leagues.stream()
-            .filter(league -> leagueName.equalsIgnoreCase(league.getLeagueName()))
-            .findFirst()
-            .orElse(null);
+    public static int statusOf(RuntimeException e) {
+        if (e instanceof ResourceNotFoundException) {
+            return HttpStatus.NOT_FOUND.value();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST.value();
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value();
+        }
+        if (e instanceof ExternalApiException || e instanceof ResourceAccessException) {
+            return HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR.value();
     }
 
-
     /**
      * Fetches all leagues from APIFootball. This might be a large dataset.
      * Ideally, APIFootball provides a way to filter leagues by country name or ID.
@@ -106,78 +296,42 @@ public class FootballApiService {
      */
     @Cacheable(value = CacheConfig.LEAGUES_CACHE, unless = "#result == null || #result.isEmpty()")
     public List<LeagueDTO> getAllLeagues() {
-        // If offline mode is preferred and cache exists, this method won't be called if Spring Cache hits.
-        // The actual "preferCacheOverLive" logic needs to be more nuanced with @Cacheable.
-        // @Cacheable primarily serves from cache if data exists and is not expired.
-        // The "preferCacheOverLive" toggle is more about *not even trying* to hit the API if cache is sufficient.
-        // For simplicity with @Cacheable, we assume if data is in cache and valid, it's used.
-        // The toggle might be used at a higher level or to adjust cache TTLs.
-
-        logger.info("Fetching all leagues from API. This might be slow and data-intensive.");
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
-                .queryParam("action", "get_leagues")
-                .queryParam("APIkey", apiKey);
-        String url = uriBuilder.toUriString();
-        logger.debug("Fetching leagues from URL: {}", url);
+        return apiClient.fetchAllLeagues();
+    }
 
-        try {
-            LeagueDTO[] leagues = restTemplate.getForObject(url, LeagueDTO[].class);
-            return leagues != null ? Arrays.asList(leagues) : Collections.emptyList();
-        } catch (HttpClientErrorException e) {
-            logger.error("HttpClientErrorException fetching all leagues: {} - {}", e.getStatusCode(), e.getResponseBodyAsString(), e);
-            throw new ExternalApiException("Error fetching leagues from API: " + e.getResponseBodyAsString(), e);
-        } catch (ResourceAccessException e) { // Catches I/O errors like connection timeout
-            logger.error("ResourceAccessException fetching all leagues: {}", e.getMessage(), e);
-            throw new ExternalApiException("Failed to connect to leagues API: " + e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching all leagues", e);
-            throw new ExternalApiException("An unexpected error occurred while fetching leagues.", e);
-        }
+    /**
+     * Fetches standings for a given league ID in the external DTO shape.
+     */
+    public List<TeamStandingDTO> getStandingsByLeagueId(String leagueId) {
+        return self.get().getStandingsTable(leagueId).toDtos();
     }
 
     /**
-     * Fetches standings for a given league ID. Cached.
+     * Fetches standings for a given league ID as a typed table. Cached.
      */
     @Cacheable(value = CacheConfig.STANDINGS_BY_LEAGUE_CACHE, key = "#leagueId", unless = "#result == null || #result.isEmpty()")
-    public List<TeamStandingDTO> getStandingsByLeagueId(String leagueId) {
-        logger.info("Fetching standings for leagueId: {}", leagueId);
-        String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
-                .queryParam("action", "get_standings")
-                .queryParam("league_id", leagueId)
-                .queryParam("APIkey", apiKey)
-                .toUriString();
-
-        TeamStandingDTO[] standings = restTemplate.getForObject(url, TeamStandingDTO[].class);
-        if (standings == null || standings.length == 0) {
-            logger.warn("No standings found or returned null for leagueId: {}", leagueId);
-            return Collections.emptyList();
-        }
-        return Arrays.asList(standings);
+    public StandingsTable getStandingsTable(String leagueId) {
+        return apiClient.fetchStandings(leagueId);
     }
 
     /**
-     * Fetches the country_id for a given country name.
+     * Re-fetches standings for a league and replaces the cached entry. Used by the background prefetcher.
      */
-    protected String getCountryIdByName(String countryName) {
-        String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
-                .queryParam("action", "get_countries")
-                .queryParam("APIkey", apiKey)
-                .toUriString();
+    @CachePut(value = CacheConfig.STANDINGS_BY_LEAGUE_CACHE, key = "#leagueId", unless = "#result == null || #result.isEmpty()")
+    public StandingsTable refreshStandingsTable(String leagueId) {
+        return apiClient.fetchStandings(leagueId);
+    }
 
-        try {
-            CountryDTO[] countries = restTemplate.getForObject(url, CountryDTO[].class);
-            if (countries != null) {
-                for (CountryDTO country : countries) {
-                    if (countryName.equalsIgnoreCase(country.getCountryName())) {
-                        return country.getCountryId();
-                    }
-                }
-            }
-            throw new ResourceNotFoundException("Country '" + countryName + "' not found.");
-        } catch (Exception e) {
-            logger.error("Error fetching country ID for '{}': {}", countryName, e.getMessage());
-            throw new ExternalApiException("Failed to fetch country ID for '" + countryName + "'", e);
-        }
+    public List<String> getSupportedCountries() {
+        return SUPPORTED_COUNTRIES;
+    }
+
+    /**
+     * Resolves the country_id for a given country name from the cached country list.
+     */
+    public String getCountryIdByName(String countryName) {
+        return lookupIndex.findCountryId(self.get().getCountries(), countryName)
+                .orElseThrow(() -> new ResourceNotFoundException("Country '" + countryName + "' not found."));
     }
 
     /**
@@ -185,14 +339,7 @@ public class FootballApiService {
      */
     @Cacheable(value = CacheConfig.LEAGUES_CACHE, key = "#countryId", unless = "#result == null || #result.isEmpty()")
     public List<LeagueDTO> getLeaguesByCountryId(String countryId) {
-        String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
-                .queryParam("action", "get_leagues")
-                .queryParam("country_id", countryId)
-                .queryParam("APIkey", apiKey)
-                .toUriString();
-
-        LeagueDTO[] leagues = restTemplate.getForObject(url, LeagueDTO[].class);
-        return leagues != null ? Arrays.asList(leagues) : Collections.emptyList();
+        return apiClient.fetchLeagues(countryId);
     }
 
     /**
@@ -200,23 +347,47 @@ public class FootballApiService {
      */
     @Cacheable(value = CacheConfig.COUNTRIES_CACHE, unless = "#result == null || #result.isEmpty()")
     public List<CountryDTO> getCountries() {
-        String url = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
-                .queryParam("action", "get_countries")
-                .queryParam("APIkey", apiKey)
-                .toUriString();
+        return apiClient.fetchCountries();
+    }
+
+    /**
+     * How far past its refresh point the cached country list is, if it is being served stale.
+     */
+    public Optional<Duration> getCountriesStaleness() {
+        return getStaleness(CacheConfig.COUNTRIES_CACHE, SimpleKey.EMPTY);
+    }
+
+    /**
+     * How far past its refresh point the cached league list for a country is, if it is being served stale.
+     */
+    public Optional<Duration> getLeaguesStaleness(String countryId) {
+        return getStaleness(CacheConfig.LEAGUES_CACHE, countryId);
+    }
 
-        CountryDTO[] countries = restTemplate.getForObject(url, CountryDTO[].class);
-        return countries != null ? Arrays.asList(countries) : Collections.emptyList();
+    /**
+     * How far past its refresh point the cached standings for a league are, if they are being served stale.
+     */
+    public Optional<Duration> getStandingsStaleness(String leagueId) {
+        return getStaleness(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, leagueId);
     }
 
     // Note on "offline mode" toggle (app.features.prefer-cache-over-live):
-    // The @Cacheable annotation handles the "read from cache if available" part.
-    // If `preferCacheOverLive` is true AND the external API is down, Spring's caching
-    // will serve stale data if the cache entry hasn't expired or if an
-    // CacheErrorHandler is configured to return stale on error.
-    // For a true "offline mode" where you *never* hit the API if the toggle is on
-    // and data is in cache (even if stale by TTL), you'd need more complex logic
-    // potentially involving programmatic cache interaction or AOP around cached methods.
-    // The current setup prioritizes freshness up to TTL, then re-fetches.
-    // If API fails during re-fetch, an exception is thrown unless cache is configured for stale-on-error.
-}
\ No newline at end of file
+    // Caches are refresh-ahead (see CacheConfig). Past the TTL an entry is still served while it is
+    // reloaded in the background; if the API is down the reload fails and the previous value stays.
+    // Without the toggle such stale values are dropped once they reach the max-staleness, after which
+    // the next request re-fetches synchronously. With the toggle on they are never dropped for age.
+    // A non-empty staleness means the background refresh has not yet succeeded.
+    private Optional<Duration> getStaleness(String cacheName, Object key) {
+        if (!(cacheManager.getCache(cacheName) instanceof CacheConfig.RefreshAheadCaffeineCache cache)) {
+            return Optional.empty();
+        }
+        return cache.ageOf(key)
+                .map(age -> age.minus(cache.getRefreshesAfter()))
+                .filter(staleness -> !staleness.isNegative() && !staleness.isZero());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
+    }
+}
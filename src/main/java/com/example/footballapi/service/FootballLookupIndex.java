@@ -0,0 +1,176 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.model.StandingsTable;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory resolution index for the team standing lookup path:
+ * country name -> country id, (country id, league name) -> league id and
+ * (league id, team name) -> row of the league's {@link StandingsTable}, all keyed by case-folded names.
+ *
+ * Each section is built from the value handed out by the corresponding cache and is
+ * remembered together with that list. When the cache returns a different list (reload,
+ * eviction, refresh) the section is rebuilt off to the side and swapped in with a single
+ * write, so readers always see either the old or the new mapping. A section is dropped when
+ * its cache entry is evicted ({@link CacheEntryRemovedEvent}), and only kept while the cache
+ * still holds the value it was built from, so it never outlives the cache entry it was built from.
+ */
+@Component
+public class FootballLookupIndex {
+
+    private final CacheManager cacheManager;
+    // Guarded by this when written
+    private volatile Section<String> countries = Section.empty();
+    private final Map<String, Section<String>> leaguesByCountry = new ConcurrentHashMap<>();
+    private final Map<String, Section<Integer>> standingsByLeague = new ConcurrentHashMap<>();
+
+    public FootballLookupIndex(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public Optional<String> findCountryId(List<CountryDTO> source, String countryName) {
+        return indexCountries(source).find(countryName);
+    }
+
+    public Optional<String> findLeagueId(String countryId, List<LeagueDTO> source, String leagueName) {
+        return indexLeagues(countryId, source).find(leagueName);
+    }
+
+    public Optional<TeamStandingDTO> findTeamStanding(String leagueId, StandingsTable source, String teamName) {
+        return findTeamRow(leagueId, source, teamName).map(source::toDto);
+    }
+
+    public Optional<Integer> findTeamRow(String leagueId, StandingsTable source, String teamName) {
+        return indexStandings(leagueId, source).find(teamName);
+    }
+
+    Section<String> indexCountries(List<CountryDTO> source) {
+        Section<String> section = countries;
+        if (section.source != source) {
+            section = Section.build(source, CountryDTO::getCountryName, CountryDTO::getCountryId);
+            synchronized (this) {
+                if (CacheConfig.isCurrent(cacheManager, CacheConfig.COUNTRIES_CACHE, SimpleKey.EMPTY, source)) {
+                    countries = section;
+                }
+            }
+        }
+        return section;
+    }
+
+    Section<String> indexLeagues(String countryId, List<LeagueDTO> source) {
+        Section<String> section = leaguesByCountry.get(countryId);
+        if (section == null || section.source != source) {
+            section = Section.build(source, LeagueDTO::getLeagueName, LeagueDTO::getLeagueId);
+            keep(leaguesByCountry, CacheConfig.LEAGUES_CACHE, countryId, section);
+        }
+        return section;
+    }
+
+    Section<Integer> indexStandings(String leagueId, StandingsTable source) {
+        Section<Integer> section = standingsByLeague.get(leagueId);
+        if (section == null || section.source != source) {
+            section = Section.build(source);
+            keep(standingsByLeague, CacheConfig.STANDINGS_BY_LEAGUE_CACHE, leagueId, section);
+        }
+        return section;
+    }
+
+    /**
+     * Keeps {@code section} for {@code key} if the cache still holds the value it was built from. Checked
+     * under the map's lock for the key, so an eviction either happens first and the section is not kept, or
+     * after it and its event drops the section.
+     */
+    private <V> void keep(Map<String, Section<V>> sections, String cacheName, String key, Section<V> section) {
+        sections.compute(key, (k, current) ->
+                CacheConfig.isCurrent(cacheManager, cacheName, key, section.source) ? section : current);
+    }
+
+    /**
+     * Drops the section built from an evicted cache entry, or all sections of a cleared cache.
+     */
+    @EventListener
+    public void onCacheEntryRemoved(CacheEntryRemovedEvent event) {
+        if (CacheConfig.COUNTRIES_CACHE.equals(event.cacheName())) {
+            synchronized (this) {
+                countries = Section.empty();
+            }
+        } else if (CacheConfig.LEAGUES_CACHE.equals(event.cacheName())) {
+            remove(leaguesByCountry, event.key());
+        } else if (CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName())) {
+            remove(standingsByLeague, event.key());
+        }
+    }
+
+    private static void remove(Map<String, ?> sections, Object key) {
+        if (key == null) {
+            sections.clear();
+        } else {
+            sections.remove(String.valueOf(key));
+        }
+    }
+
+    /**
+     * Case-folds and trims a user or upstream supplied name so that lookups are
+     * insensitive to case and surrounding whitespace.
+     */
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class Section<V> {
+        private static final Section<?> EMPTY = new Section<>(null, Map.of());
+
+        private final Object source;
+        private final Map<String, V> entries;
+
+        private Section(Object source, Map<String, V> entries) {
+            this.source = source;
+            this.entries = entries;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <V> Section<V> empty() {
+            return (Section<V>) EMPTY;
+        }
+
+        static <T, V> Section<V> build(List<T> source, Function<T, String> name, Function<T, V> value) {
+            Map<String, V> entries = new HashMap<>(source.size() * 2);
+            for (T item : source) {
+                V v = value.apply(item);
+                if (v != null) {
+                    // First occurrence wins, matching the previous findFirst() semantics.
+                    entries.putIfAbsent(normalize(name.apply(item)), v);
+                }
+            }
+            return new Section<>(source, Map.copyOf(entries));
+        }
+
+        static Section<Integer> build(StandingsTable table) {
+            Map<String, Integer> entries = new HashMap<>(table.size() * 2);
+            for (int row = 0; row < table.size(); row++) {
+                entries.putIfAbsent(normalize(table.teamName(row)), row);
+            }
+            return new Section<>(table, Map.copyOf(entries));
+        }
+
+        Optional<V> find(String name) {
+            return Optional.ofNullable(entries.get(normalize(name)));
+        }
+    }
+}
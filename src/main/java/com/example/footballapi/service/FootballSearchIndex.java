@@ -0,0 +1,554 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.config.CacheEntryUpdatedEvent;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.SearchResultDTO;
+import com.example.footballapi.model.StandingsTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fuzzy search over the teams and leagues currently held in the caches, behind {@code /search}.
+ *
+ * Names and queries are normalized alike: accents and case folded, punctuation dropped and club affixes
+ * such as "FC" or "AC" ignored. A name matches, best first, when it or one of its aliases (configured in
+ * {@code app.search.aliases}, plus the initials of names of three or more words) equals the query, starts
+ * with it, has a word starting with or abbreviated by each word of the query ("man utd" for Manchester
+ * United), or shares enough trigrams with it ({@code app.search.min-similarity}) to survive a typo.
+ *
+ * The index is held as one immutable segment per cache entry, a country's league list or a league's
+ * standings table, with its trigram postings and sorted words precomputed. When an entry is written
+ * ({@link CacheEntryUpdatedEvent}) only its segment is rebuilt and swapped in, so a refresh re-indexes one
+ * league and a search never waits for a rebuild. A segment is only swapped in while the cache still holds
+ * the value it was built from, and dropped when the entry is evicted ({@link CacheEntryRemovedEvent}), so
+ * the index holds no more than the caches do. Search times are recorded as
+ * {@code football.search}.
+ */
+@Component
+public class FootballSearchIndex {
+
+    public static final String TEAM = "team";
+    public static final String LEAGUE = "league";
+
+    private static final Logger logger = LoggerFactory.getLogger(FootballSearchIndex.class);
+
+    // Club affixes left out of the indexed names, unless they are the whole name.
+    private static final Set<String> AFFIXES = Set.of("fc", "afc", "cf", "sc", "ac", "as", "ssc", "sv", "fk", "the");
+
+    private final CacheManager cacheManager;
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> aliasesByName;
+    private final Timer searchTimer;
+
+    @Value("${app.search.min-similarity:0.4}")
+    private double minSimilarity;
+
+    @Value("${app.search.max-results:50}")
+    private int maxResults;
+
+    public FootballSearchIndex(@Value("${app.search.aliases:}") List<String> aliases, MeterRegistry meterRegistry,
+                               CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+        this.aliasesByName = parseAliases(aliases);
+        this.searchTimer = Timer.builder("football.search")
+                .description("Time spent answering a team and league search")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ranked teams and leagues matching {@code query}, best first, optionally only of one {@code type}.
+     */
+    public List<SearchResultDTO> search(String query, String type, int limit) {
+        if (type != null && !TEAM.equals(type) && !LEAGUE.equals(type)) {
+            throw new IllegalArgumentException("Type must be '" + TEAM + "' or '" + LEAGUE + "'.");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxResults + ".");
+        }
+        Query parsed = Query.of(query);
+        if (parsed.text.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain a letter or a digit.");
+        }
+        return searchTimer.record(() -> collect(parsed, type, limit));
+    }
+
+    /**
+     * Re-indexes the league list or standings table that was just cached.
+     */
+    @EventListener
+    public void onCacheEntryUpdated(CacheEntryUpdatedEvent event) {
+        try {
+            if (CacheConfig.LEAGUES_CACHE.equals(event.cacheName()) && event.value() instanceof List<?> leagues) {
+                keep(event, LEAGUE, leagueSegment(leagues));
+            } else if (CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName())
+                    && event.value() instanceof StandingsTable table) {
+                keep(event, TEAM, teamSegment(table));
+            }
+        } catch (RuntimeException e) {
+            // Never fail the cache write that triggered this.
+            logger.warn("Could not index {} entry {}: {}", event.cacheName(), event.key(), e.getMessage());
+        }
+    }
+
+    /**
+     * Swaps in {@code segment} if the cache still holds the value it was built from. Checked under the map's
+     * lock for the key, so an eviction either happens first and the segment is not kept, or after it and its
+     * event drops the segment.
+     */
+    private void keep(CacheEntryUpdatedEvent event, String type, Segment segment) {
+        segments.compute(type + ":" + event.key(), (segmentKey, current) ->
+                CacheConfig.isCurrent(cacheManager, event.cacheName(), event.key(), event.value()) ? segment : current);
+    }
+
+    /**
+     * Drops the segment of the league list or standings table that was evicted, or of all of them when
+     * the cache was cleared.
+     */
+    @EventListener
+    public void onCacheEntryRemoved(CacheEntryRemovedEvent event) {
+        String type = CacheConfig.LEAGUES_CACHE.equals(event.cacheName()) ? LEAGUE
+                : CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName()) ? TEAM
+                : null;
+        if (type == null) {
+            return;
+        }
+        if (event.key() == null) {
+            segments.keySet().removeIf(segmentKey -> segmentKey.startsWith(type + ":"));
+        } else {
+            segments.remove(type + ":" + event.key());
+        }
+    }
+
+    private List<SearchResultDTO> collect(Query query, String type, int limit) {
+        TopHits hits = new TopHits(limit);
+        for (Segment segment : segments.values()) {
+            if (type == null || segment.type.equals(type)) {
+                segment.match(query, minSimilarity, hits);
+            }
+        }
+        return hits.toList();
+    }
+
+    private Segment leagueSegment(List<?> leagues) {
+        List<Document> documents = new ArrayList<>(leagues.size());
+        for (Object item : leagues) {
+            if (item instanceof LeagueDTO league && league.getLeagueId() != null && league.getLeagueName() != null) {
+                documents.add(new Document(LEAGUE, league.getLeagueId(), league.getLeagueName(),
+                        league.getCountryName(), league.getLeagueId(), league.getLeagueName()));
+            }
+        }
+        return Segment.build(LEAGUE, documents, this::keysOf);
+    }
+
+    private Segment teamSegment(StandingsTable table) {
+        List<Document> documents = new ArrayList<>(table.size());
+        for (int row = 0; row < table.size(); row++) {
+            if (table.teamName(row) != null) {
+                documents.add(new Document(TEAM, table.teamId(row), table.teamName(row),
+                        table.getCountryName(), table.getLeagueId(), table.getLeagueName()));
+            }
+        }
+        return Segment.build(TEAM, documents, this::keysOf);
+    }
+
+    /**
+     * The normalized name of a team or league followed by its initials and configured aliases.
+     */
+    private List<String[]> keysOf(String name) {
+        String[] words = words(name);
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(String.join(" ", words));
+        if (words.length >= 3) {
+            StringBuilder initials = new StringBuilder(words.length);
+            for (String word : words) {
+                initials.append(word.charAt(0));
+            }
+            keys.add(initials.toString());
+        }
+        String normalized = keys.iterator().next();
+        aliasesByName.forEach((aliasedName, aliases) -> {
+            // Upstream names are often shorter or longer than the aliased one ("Tottenham" for "Tottenham Hotspur").
+            if (startsWithWords(aliasedName, normalized) || startsWithWords(normalized, aliasedName)) {
+                keys.addAll(aliases);
+            }
+        });
+        List<String[]> keyWords = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (!key.isEmpty()) {
+                keyWords.add(key.split(" "));
+            }
+        }
+        return keyWords;
+    }
+
+    private static boolean startsWithWords(String name, String prefix) {
+        return !prefix.isEmpty() && (name.equals(prefix) || name.startsWith(prefix + " "));
+    }
+
+    private static Map<String, List<String>> parseAliases(List<String> entries) {
+        Map<String, List<String>> aliases = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid app.search.aliases entry '" + entry + "', expected alias=Name.");
+            }
+            String alias = String.join(" ", words(entry.substring(0, separator)));
+            String name = String.join(" ", words(entry.substring(separator + 1)));
+            aliases.computeIfAbsent(name, key -> new ArrayList<>()).add(alias);
+        }
+        return aliases;
+    }
+
+    /**
+     * Splits a name into accent- and case-folded words of letters and digits, without club affixes.
+     */
+    static String[] words(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            switch (c) {
+                // Letters that do not decompose into a base letter and a mark.
+                case 'ß' -> folded.append("ss");
+                case 'æ' -> folded.append("ae");
+                case 'œ' -> folded.append("oe");
+                case 'ø' -> folded.append('o');
+                case 'ł' -> folded.append('l');
+                case 'đ' -> folded.append('d');
+                case 'ı' -> folded.append('i');
+                case '\'', '’' -> { }
+                default -> {
+                    if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                        folded.append(Character.isLetterOrDigit(c) ? c : ' ');
+                    }
+                }
+            }
+        }
+        String[] words = folded.toString().trim().split("\\s+");
+        if (words.length == 1 && words[0].isEmpty()) {
+            return new String[0];
+        }
+        String[] significant = Arrays.stream(words).filter(word -> !AFFIXES.contains(word)).toArray(String[]::new);
+        return significant.length > 0 ? significant : words;
+    }
+
+    /**
+     * The distinct trigrams of a normalized name, padded with a space at each end.
+     */
+    static String[] trigrams(String text) {
+        String padded = " " + text + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams.toArray(String[]::new);
+    }
+
+    /**
+     * Whether a query word is the start of a name word, or abbreviates it: same first letter and the
+     * rest of its letters in order ("utd" for "united").
+     */
+    static boolean abbreviates(String queryWord, String word) {
+        if (word.startsWith(queryWord)) {
+            return true;
+        }
+        if (queryWord.length() < 2 || queryWord.charAt(0) != word.charAt(0)) {
+            return false;
+        }
+        int next = 1;
+        for (int i = 1; i < word.length() && next < queryWord.length(); i++) {
+            if (word.charAt(i) == queryWord.charAt(next)) {
+                next++;
+            }
+        }
+        return next == queryWord.length();
+    }
+
+    /**
+     * A team or league as returned by the search. The same team or league indexed from two cache entries
+     * is equal, by type, id and league.
+     */
+    private static final class Document {
+
+        private final String type;
+        private final String id;
+        private final String name;
+        private final String countryName;
+        private final String leagueId;
+        private final String leagueName;
+        private final String identity;
+
+        Document(String type, String id, String name, String countryName, String leagueId, String leagueName) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.countryName = countryName;
+            this.leagueId = leagueId;
+            this.leagueName = leagueName;
+            this.identity = type + ":" + id + ":" + leagueId;
+        }
+
+        String name() {
+            return name;
+        }
+
+        SearchResultDTO toDto(double score) {
+            return new SearchResultDTO(type, id, name, countryName, leagueId, leagueName, score);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Document document && identity.equals(document.identity);
+        }
+
+        @Override
+        public int hashCode() {
+            return identity.hashCode();
+        }
+    }
+
+    private record Query(String text, String[] words, String[] trigrams) {
+
+        static Query of(String query) {
+            String[] words = FootballSearchIndex.words(query);
+            String text = String.join(" ", words);
+            return new Query(text, words, FootballSearchIndex.trigrams(text));
+        }
+    }
+
+    private record Hit(Document document, double score) {
+    }
+
+    /**
+     * The best {@code limit} hits so far, kept in a heap with the worst on top. A league can be in
+     * several cached league lists, so leagues are first reduced to their best score.
+     */
+    private static final class TopHits {
+
+        private static final Comparator<Hit> BEST_FIRST = Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> hit.document().name());
+
+        private final int limit;
+        private final PriorityQueue<Hit> worstFirst;
+        private final Map<Document, Double> leagues = new HashMap<>();
+
+        TopHits(int limit) {
+            this.limit = limit;
+            this.worstFirst = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        }
+
+        void add(Document document, double score) {
+            if (LEAGUE.equals(document.type)) {
+                leagues.merge(document, score, Math::max);
+            } else {
+                offer(new Hit(document, score));
+            }
+        }
+
+        List<SearchResultDTO> toList() {
+            leagues.forEach((document, score) -> offer(new Hit(document, score)));
+            List<Hit> best = new ArrayList<>(worstFirst);
+            best.sort(BEST_FIRST);
+            List<SearchResultDTO> results = new ArrayList<>(best.size());
+            for (Hit hit : best) {
+                results.add(hit.document().toDto(Math.round(hit.score() * 1000) / 1000.0));
+            }
+            return results;
+        }
+
+        private void offer(Hit hit) {
+            if (worstFirst.size() < limit) {
+                worstFirst.add(hit);
+            } else if (BEST_FIRST.compare(hit, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(hit);
+            }
+        }
+    }
+
+    /**
+     * A normalized name or alias of one document.
+     */
+    private record Key(int document, String text, String[] words, int trigramCount) {
+
+        double score(Query query, int sharedTrigrams, boolean sharesWordPrefix, double minSimilarity) {
+            double similarity = 2.0 * sharedTrigrams / (query.trigrams.length + trigramCount);
+            if (!sharesWordPrefix) {
+                // Without a word starting like a query word, only the trigram similarity can match.
+                return similarity >= minSimilarity ? 0.7 * similarity : 0;
+            }
+            if (text.equals(query.text)) {
+                return 1.0;
+            }
+            double coverage = Math.min(1.0, (double) query.text.length() / text.length());
+            if (text.startsWith(query.text)) {
+                return 0.9 + 0.05 * coverage;
+            }
+            int prefixWords = matchWords(query.words);
+            if (prefixWords >= 0) {
+                // Words the query spells out rank above abbreviated ones ("man" is Manchester before Milan).
+                return 0.7 + 0.1 * prefixWords / query.words.length + 0.05 * coverage;
+            }
+            return similarity >= minSimilarity ? 0.7 * similarity : 0;
+        }
+
+        /**
+         * If every query word starts or abbreviates a different word of this key, in any order, how many
+         * of them start one; otherwise -1.
+         */
+        private int matchWords(String[] queryWords) {
+            if (queryWords.length > words.length) {
+                return -1;
+            }
+            boolean[] used = new boolean[words.length];
+            int prefixWords = 0;
+            for (String queryWord : queryWords) {
+                int match = -1;
+                for (int i = 0; i < words.length; i++) {
+                    if (!used[i] && words[i].startsWith(queryWord)) {
+                        match = i;
+                        prefixWords++;
+                        break;
+                    }
+                }
+                for (int i = 0; i < words.length && match < 0; i++) {
+                    if (!used[i] && abbreviates(queryWord, words[i])) {
+                        match = i;
+                    }
+                }
+                if (match < 0) {
+                    return -1;
+                }
+                used[match] = true;
+            }
+            return prefixWords;
+        }
+    }
+
+    /**
+     * The documents of one cache entry with their keys, the postings of each trigram (ordinals of the
+     * keys containing it) and every key word in sorted order, for prefix lookups by binary search.
+     */
+    private static final class Segment {
+
+        private final String type;
+        private final Document[] documents;
+        private final Key[] keys;
+        private final Map<String, int[]> postings;
+        private final String[] sortedWords;
+        private final int[] sortedWordKeys;
+
+        private Segment(String type, Document[] documents, Key[] keys, Map<String, int[]> postings,
+                        String[] sortedWords, int[] sortedWordKeys) {
+            this.type = type;
+            this.documents = documents;
+            this.keys = keys;
+            this.postings = postings;
+            this.sortedWords = sortedWords;
+            this.sortedWordKeys = sortedWordKeys;
+        }
+
+        static Segment build(String type, List<Document> documents, Function<String, List<String[]>> keysOf) {
+            List<Key> keys = new ArrayList<>();
+            Map<String, List<Integer>> postings = new HashMap<>();
+            List<Map.Entry<String, Integer>> words = new ArrayList<>();
+            for (int document = 0; document < documents.size(); document++) {
+                for (String[] keyWords : keysOf.apply(documents.get(document).name())) {
+                    int ordinal = keys.size();
+                    String text = String.join(" ", keyWords);
+                    String[] trigrams = trigrams(text);
+                    keys.add(new Key(document, text, keyWords, trigrams.length));
+                    for (String trigram : trigrams) {
+                        postings.computeIfAbsent(trigram, t -> new ArrayList<>()).add(ordinal);
+                    }
+                    for (String word : keyWords) {
+                        words.add(Map.entry(word, ordinal));
+                    }
+                }
+            }
+            words.sort(Map.Entry.comparingByKey());
+            Map<String, int[]> packed = new HashMap<>(postings.size() * 2);
+            postings.forEach((trigram, ordinals) ->
+                    packed.put(trigram, ordinals.stream().mapToInt(Integer::intValue).toArray()));
+            return new Segment(type, documents.toArray(Document[]::new), keys.toArray(Key[]::new), Map.copyOf(packed),
+                    words.stream().map(Map.Entry::getKey).toArray(String[]::new),
+                    words.stream().mapToInt(Map.Entry::getValue).toArray());
+        }
+
+        /**
+         * Scores the keys sharing a trigram with the query or having a word that starts with a query word,
+         * and adds each matching document with the best score of its keys to {@code hits}.
+         */
+        void match(Query query, double minSimilarity, TopHits hits) {
+            int[] shared = new int[keys.length];
+            boolean[] prefixed = new boolean[keys.length];
+            for (String trigram : query.trigrams) {
+                int[] ordinals = postings.get(trigram);
+                if (ordinals != null) {
+                    for (int ordinal : ordinals) {
+                        shared[ordinal]++;
+                    }
+                }
+            }
+            for (String queryWord : query.words) {
+                for (int i = lowerBound(queryWord); i < sortedWords.length && sortedWords[i].startsWith(queryWord); i++) {
+                    prefixed[sortedWordKeys[i]] = true;
+                }
+            }
+            double[] best = new double[documents.length];
+            for (int ordinal = 0; ordinal < keys.length; ordinal++) {
+                if (shared[ordinal] > 0 || prefixed[ordinal]) {
+                    int document = keys[ordinal].document();
+                    best[document] = Math.max(best[document],
+                            keys[ordinal].score(query, shared[ordinal], prefixed[ordinal], minSimilarity));
+                }
+            }
+            for (int document = 0; document < documents.length; document++) {
+                if (best[document] > 0) {
+                    hits.add(documents[document], best[document]);
+                }
+            }
+        }
+
+        private int lowerBound(String word) {
+            int low = 0;
+            int high = sortedWords.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedWords[middle].compareTo(word) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
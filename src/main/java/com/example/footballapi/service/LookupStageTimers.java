@@ -0,0 +1,54 @@
+package com.example.footballapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Times each stage of resolving a team standing as {@code football.lookup.stage}, tagged with the
+ * {@link Stage}, so the slow step of {@code getTeamStanding} can be told apart in production. Failed
+ * stages (e.g. a name that is not found) are timed too.
+ */
+@Component
+public class LookupStageTimers {
+
+    public enum Stage {
+        COUNTRY_RESOLVE, LEAGUE_RESOLVE, STANDINGS_FETCH, TEAM_FILTER;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+    public LookupStageTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("football.lookup.stage")
+                    .description("Time spent in each stage of a team standing lookup")
+                    .tag("stage", stage.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T time(Stage stage, Supplier<T> step) {
+        return timers.get(stage).record(step);
+    }
+
+    /**
+     * Times a reactive step from subscription until it completes, fails or is cancelled.
+     */
+    public <T> Mono<T> time(Stage stage, Mono<T> step) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return step.doFinally(signal -> sample.stop(timers.get(stage)));
+        });
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.service.ApiFootballJsonDecoder.IncrementalReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link ApiFootballClient} on WebClient. Every method performs a live
+ * HTTP call when subscribed; caching is layered on top by {@link ReactiveFootballApiService}.
+ *
+ * Failures are translated into the exceptions RestTemplate would have thrown for the same response
+ * ({@link HttpClientErrorException}, {@link HttpServerErrorException}, {@link ResourceAccessException})
+ * and then reported the way the blocking client reports them ({@link ApiFootballClient#upstreamFailure}),
+ * so they are rendered identically by the global exception handler. Bodies are decoded with the same
+ * {@link ApiFootballJsonDecoder} record readers as the blocking client, chunk by chunk as they arrive,
+ * so a large response (such as the league list of every country) is never held in memory as a whole.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveApiFootballClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveApiFootballClient.class);
+
+    private final WebClient webClient;
+    private final ApiFootballJsonDecoder decoder;
+
+    @Value("${apifootball.api.url}")
+    private String apiUrlBase;
+
+    @Value("${apifootball.api.key}")
+    private String apiKey;
+
+    public ReactiveApiFootballClient(WebClient apiFootballWebClient, ObjectMapper objectMapper) {
+        this.webClient = apiFootballWebClient;
+        this.decoder = new ApiFootballJsonDecoder(objectMapper);
+    }
+
+    /**
+     * Fetches standings for a given league ID.
+     */
+    public Mono<StandingsTable> fetchStandings(String leagueId) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                .queryParam("action", "get_standings")
+                .queryParam("league_id", leagueId)
+                .queryParam("APIkey", apiKey)
+                .build().toUri();
+        return get(uri, "standings", decoder::standingsReader)
+                .doOnSubscribe(subscription -> logger.info("Fetching standings for leagueId: {}", leagueId))
+                .filter(standings -> !standings.isEmpty())
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.warn("No standings found or returned null for leagueId: {}", leagueId);
+                    return StandingsTable.empty();
+                }));
+    }
+
+    /**
+     * Fetches all leagues for a given country_id.
+     */
+    public Mono<List<LeagueDTO>> fetchLeagues(String countryId) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                .queryParam("action", "get_leagues")
+                .queryParam("country_id", countryId)
+                .queryParam("APIkey", apiKey)
+                .build().toUri();
+        return get(uri, "leagues", () -> decoder.leaguesReader(league -> countryId.equals(league.getCountryId())))
+                .defaultIfEmpty(Collections.emptyList());
+    }
+
+    /**
+     * Fetches all countries.
+     */
+    public Mono<List<CountryDTO>> fetchCountries() {
+        URI uri = UriComponentsBuilder.fromHttpUrl(apiUrlBase)
+                .queryParam("action", "get_countries")
+                .queryParam("APIkey", apiKey)
+                .build().toUri();
+        return get(uri, "countries", () -> decoder.countriesReader(
+                        country -> FootballApiService.isSupported(country.getCountryName())))
+                .defaultIfEmpty(Collections.emptyList());
+    }
+
+    private <T> Mono<T> get(URI uri, String what, ReaderFactory<T> readers) {
+        return webClient.get().uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> Mono.defer(() -> {
+                    IncrementalReader<T> reader = newReader(readers);
+                    return body.doOnNext(buffer -> feed(reader, buffer))
+                            .then(Mono.fromCallable(reader::finish));
+                }))
+                .onErrorMap(e -> ApiFootballClient.upstreamFailure(what, translate(e)));
+    }
+
+    private static <T> IncrementalReader<T> newReader(ReaderFactory<T> readers) {
+        try {
+            return readers.create();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void feed(IncrementalReader<?> reader, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+                reader.feed(chunks.next());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReaderFactory<T> {
+        IncrementalReader<T> create() throws IOException;
+    }
+
+    private static Throwable translate(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            if (response.getStatusCode().is4xxClientError()) {
+                return HttpClientErrorException.create(response.getStatusCode(), response.getStatusText(),
+                        response.getHeaders(), response.getResponseBodyAsByteArray(), null);
+            }
+            return HttpServerErrorException.create(response.getStatusCode(), response.getStatusText(),
+                    response.getHeaders(), response.getResponseBodyAsByteArray(), null);
+        }
+        if (e instanceof WebClientRequestException request) {
+            // Same message shape as RestTemplate, which also leaves out the query (and with it the API key).
+            URI uri = UriComponentsBuilder.fromUri(request.getUri()).replaceQuery(null).build().toUri();
+            Throwable cause = request.getMostSpecificCause();
+            return new ResourceAccessException("I/O error on " + request.getMethod() + " request for \"" + uri + "\": "
+                    + cause.getMessage(), cause instanceof IOException io ? io : new IOException(cause));
+        }
+        return e;
+    }
+}
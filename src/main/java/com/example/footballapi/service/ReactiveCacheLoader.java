@@ -0,0 +1,43 @@
+package com.example.footballapi.service;
+
+import org.springframework.cache.Cache;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Reactive read-through on top of the shared Spring caches, the non-blocking counterpart of
+ * {@code @Cacheable} plus {@link RequestCoalescer}.
+ *
+ * A hit is returned immediately (and, like every cache read, schedules a refresh-ahead reload when the
+ * entry is past its TTL). On a miss, concurrent subscribers for the same key share one upstream
+ * {@link Mono}; a value that passes {@code cacheable} is put into the cache before it is emitted.
+ * Nothing blocks and no lock is held while the load is in flight.
+ */
+class ReactiveCacheLoader {
+
+    private final Map<List<Object>, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <V> Mono<V> get(Cache cache, Object key, Supplier<Mono<V>> loader, Predicate<V> cacheable) {
+        return Mono.defer(() -> {
+            Cache.ValueWrapper hit = cache.get(key);
+            if (hit != null) {
+                return Mono.just((V) hit.get());
+            }
+            List<Object> flightKey = List.of(cache.getName(), key);
+            return (Mono<V>) inFlight.computeIfAbsent(flightKey, k -> loader.get()
+                    .doOnNext(value -> {
+                        if (cacheable.test(value)) {
+                            cache.put(key, value);
+                        }
+                    })
+                    .doFinally(signal -> inFlight.remove(k))
+                    .cache());
+        });
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.dto.BatchStandingsItemDTO;
+import com.example.footballapi.dto.BatchStandingsResultDTO;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.exception.ResourceNotFoundException;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.model.TeamRow;
+import com.example.footballapi.service.LookupStageTimers.Stage;
+import com.example.footballapi.service.StandingsRankings.Sort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking variant of {@link FootballApiService}, enabled with {@code app.reactive.enabled=true}.
+ *
+ * Reads and writes the same caches (and so shares refresh-ahead, prefetch and snapshots with the
+ * blocking path) through {@link ReactiveCacheLoader}, and fetches misses with
+ * {@link ReactiveApiFootballClient}. Name resolution uses the same {@link FootballLookupIndex}.
+ * No method blocks: a request waiting for APIFootball holds no thread.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveFootballApiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveFootballApiService.class);
+
+    private final ReactiveApiFootballClient apiClient;
+    private final FootballApiService footballApiService;
+    private final FootballLookupIndex lookupIndex;
+    private final CacheManager cacheManager;
+    private final LookupStageTimers stageTimers;
+    private final StandingsRankings rankings;
+    private final ReactiveCacheLoader cacheLoader = new ReactiveCacheLoader();
+
+    @Value("${app.batch.max-items:100}")
+    private int maxBatchItems;
+
+    @Value("${app.batch.max-concurrency:8}")
+    private int batchConcurrency;
+
+    public ReactiveFootballApiService(ReactiveApiFootballClient apiClient, FootballApiService footballApiService,
+                                      FootballLookupIndex lookupIndex, CacheManager cacheManager,
+                                      LookupStageTimers stageTimers, StandingsRankings rankings) {
+        this.apiClient = apiClient;
+        this.footballApiService = footballApiService;
+        this.lookupIndex = lookupIndex;
+        this.cacheManager = cacheManager;
+        this.stageTimers = stageTimers;
+        this.rankings = rankings;
+    }
+
+    /**
+     * Resolves country, league and team like {@link FootballApiService#getTeamStanding}.
+     */
+    public Mono<TeamStandingDTO> getTeamStanding(String countryName, String leagueName, String teamName) {
+        return findTeamRow(countryName, leagueName, teamName).map(TeamRow::toDto);
+    }
+
+    /**
+     * Resolves a team to its row in the cached standings like {@link FootballApiService#findTeamRow}.
+     */
+    public Mono<TeamRow> findTeamRow(String countryName, String leagueName, String teamName) {
+        return Mono.fromRunnable(() -> footballApiService.checkSupported(countryName))
+                .then(stageTimers.time(Stage.COUNTRY_RESOLVE, getCountryIdByName(countryName)))
+                .flatMap(countryId -> stageTimers.time(Stage.LEAGUE_RESOLVE, findLeagueId(countryId, countryName, leagueName)))
+                .flatMap(leagueId -> stageTimers.time(Stage.STANDINGS_FETCH, getStandingsTable(leagueId))
+                        .map(standings -> stageTimers.time(Stage.TEAM_FILTER, () -> lookupIndex.findTeamRow(leagueId, standings, teamName)
+                                .map(row -> new TeamRow(leagueId, standings, row))
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                        "Team '" + teamName + "' not found in league '" + leagueName + "'.")))));
+    }
+
+    /**
+     * Same contract as {@link FootballApiService#getBatchStandings}: distinct leagues are loaded once and
+     * concurrently (at most {@code app.batch.max-concurrency} items in flight), results keep request order
+     * and a failing item carries its own status.
+     */
+    public Mono<List<BatchStandingsResultDTO>> getBatchStandings(List<BatchStandingsItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Batch must contain at least one item."));
+        }
+        if (items.size() > maxBatchItems) {
+            return Mono.error(new IllegalArgumentException("Batch must not contain more than " + maxBatchItems + " items."));
+        }
+        Map<String, Mono<StandingsTable>> standingsByLeague = new ConcurrentHashMap<>();
+        return Flux.fromIterable(items)
+                .flatMapSequential(item -> getBatchItem(item, standingsByLeague), batchConcurrency)
+                .collectList();
+    }
+
+    private Mono<BatchStandingsResultDTO> getBatchItem(BatchStandingsItemDTO item,
+                                                       Map<String, Mono<StandingsTable>> standingsByLeague) {
+        BatchStandingsResultDTO result = new BatchStandingsResultDTO();
+        result.setRequest(item);
+        return Mono.defer(() -> {
+                    if (item == null || isBlank(item.getCountryName()) || isBlank(item.getLeagueName())) {
+                        throw new IllegalArgumentException("Country name and league name must not be empty.");
+                    }
+                    footballApiService.checkSupported(item.getCountryName());
+                    return findLeagueId(item.getCountryName(), item.getLeagueName());
+                })
+                .flatMap(leagueId -> standingsByLeague.computeIfAbsent(leagueId, id -> getStandingsTable(id).cache())
+                        .map(standings -> isBlank(item.getTeamName())
+                                ? standings.toDtos()
+                                : List.of(lookupIndex.findTeamStanding(leagueId, standings, item.getTeamName())
+                                        .orElseThrow(() -> new ResourceNotFoundException(
+                                                "Team '" + item.getTeamName() + "' not found in league '" + item.getLeagueName() + "'.")))))
+                .map(standings -> {
+                    result.setStandings(standings);
+                    result.setStatus(HttpStatus.OK.value());
+                    return result;
+                })
+                .onErrorResume(RuntimeException.class, e -> {
+                    logger.debug("Batch item {} failed: {}", item, e.getMessage());
+                    result.setStatus(FootballApiService.statusOf(e));
+                    result.setError(e.getMessage());
+                    return Mono.just(result);
+                });
+    }
+
+    /**
+     * A league's table by rank like {@link FootballApiService#getLeagueTable}.
+     */
+    public Mono<StandingsRankings.Page> getLeagueTable(String countryName, String leagueName, String sort,
+                                                       int from, Integer to) {
+        return Mono.fromCallable(() -> {
+                    Sort order = Sort.fromParam(sort);
+                    StandingsRankings.checkRange(from, to != null ? to : from);
+                    footballApiService.checkSupported(countryName);
+                    return order;
+                })
+                .flatMap(order -> findLeagueId(countryName, leagueName)
+                        .flatMap(leagueId -> getStandingsTable(leagueId)
+                                .map(standings -> rankings.rank(leagueId, standings)
+                                        .page(order, from, to != null ? to : Integer.MAX_VALUE))));
+    }
+
+    /**
+     * The cross-league leaderboard of the cached standings like {@link FootballApiService#getLeaderboard}.
+     */
+    public Mono<StandingsRankings.Page> getLeaderboard(String sort, int from, int to) {
+        return Mono.fromCallable(() -> {
+                    Sort order = Sort.fromParam(sort);
+                    rankings.checkLeaderboardRange(from, to);
+                    return order;
+                })
+                .flatMap(order -> Flux.fromIterable(footballApiService.getSupportedCountries())
+                        .concatMap(countryName -> Mono.fromRunnable(() -> footballApiService.checkSupported(countryName))
+                                .then(getCountryIdByName(countryName))
+                                .flatMap(this::getLeaguesByCountryId))
+                        .flatMapIterable(leagues -> leagues)
+                        .collectList()
+                        .map(leagues -> rankings.leaderboard(footballApiService.getCachedStandings(leagues))
+                                .page(order, from, to)));
+    }
+
+    private Mono<String> findLeagueId(String countryName, String leagueName) {
+        return getCountryIdByName(countryName)
+                .flatMap(countryId -> findLeagueId(countryId, countryName, leagueName));
+    }
+
+    private Mono<String> findLeagueId(String countryId, String countryName, String leagueName) {
+        return getLeaguesByCountryId(countryId)
+                .map(leagues -> lookupIndex.findLeagueId(countryId, leagues, leagueName)
+                        .orElseThrow(() -> new ResourceNotFoundException(
+                                "League '" + leagueName + "' in country '" + countryName + "' not found.")));
+    }
+
+    public Mono<String> getCountryIdByName(String countryName) {
+        return getCountries().map(countries -> lookupIndex.findCountryId(countries, countryName)
+                .orElseThrow(() -> new ResourceNotFoundException("Country '" + countryName + "' not found.")));
+    }
+
+    public Mono<StandingsTable> getStandingsTable(String leagueId) {
+        return cacheLoader.get(cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE), leagueId,
+                () -> apiClient.fetchStandings(leagueId),
+                standings -> !standings.isEmpty());
+    }
+
+    public Mono<List<LeagueDTO>> getLeaguesByCountryId(String countryId) {
+        return cacheLoader.get(cacheManager.getCache(CacheConfig.LEAGUES_CACHE), countryId,
+                () -> apiClient.fetchLeagues(countryId),
+                leagues -> !leagues.isEmpty());
+    }
+
+    public Mono<List<CountryDTO>> getCountries() {
+        return cacheLoader.get(cacheManager.getCache(CacheConfig.COUNTRIES_CACHE), SimpleKey.EMPTY,
+                apiClient::fetchCountries,
+                countries -> !countries.isEmpty());
+    }
+
+    // Staleness only reads cache metadata, so the blocking service's implementation is reused as is.
+
+    public Optional<Duration> getCountriesStaleness() {
+        return footballApiService.getCountriesStaleness();
+    }
+
+    public Optional<Duration> getLeaguesStaleness(String countryId) {
+        return footballApiService.getLeaguesStaleness(countryId);
+    }
+
+    public Optional<Duration> getStandingsStaleness(String leagueId) {
+        return footballApiService.getStandingsStaleness(leagueId);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
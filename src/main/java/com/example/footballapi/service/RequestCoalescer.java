@@ -0,0 +1,87 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.UpstreamRateLimiter.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight loader: concurrent loads for the same key share one in-flight upstream call.
+ *
+ * The first caller for a key (the originator) runs the loader on its own thread; callers arriving
+ * while it is in flight wait on the originator's future and receive the same value or exception.
+ * No lock is held while the loader runs or while followers wait.
+ *
+ * A flight runs at the {@link Priority} of its originator. An interactive caller does not join a
+ * background flight, which may wait for its permit (and be rejected) well past the interactive deadline;
+ * it starts a flight of its own at interactive priority, which later callers for the key join instead.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Supplier<Priority> priority;
+    private final Counter originated;
+    private final Counter coalesced;
+
+    public RequestCoalescer(String name, MeterRegistry meterRegistry, Supplier<Priority> priority) {
+        this.priority = priority;
+        this.originated = loadCounter(name, "originated", meterRegistry);
+        this.coalesced = loadCounter(name, "coalesced", meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        Flight<V> flight = new Flight<>(priority.get(), new CompletableFuture<>());
+        while (true) {
+            Flight<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                break;
+            }
+            if (existing.priority() == Priority.INTERACTIVE || flight.priority() == Priority.BACKGROUND) {
+                coalesced.increment();
+                return await(existing.future());
+            }
+            if (inFlight.replace(key, existing, flight)) {
+                break; // The background flight completes on its own, for its originator only
+            }
+        }
+
+        originated.increment();
+        try {
+            V value = loader.get();
+            flight.future().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter loadCounter(String name, String type, MeterRegistry meterRegistry) {
+        return Counter.builder("apifootball.loads")
+                .description("Upstream loads that started a call (originated) or joined one in flight (coalesced)")
+                .tag("name", name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private record Flight<V>(Priority priority, CompletableFuture<V> future) {
+    }
+}
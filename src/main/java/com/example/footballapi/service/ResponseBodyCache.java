@@ -0,0 +1,155 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.model.TeamRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Response bodies of the hot GET endpoints, already serialized to JSON (with the application's
+ * ObjectMapper, so byte-identical to what Spring MVC would write) and gzipped where
+ * {@link ResponseCompression} finds it worthwhile.
+ *
+ * Entries are keyed by endpoint and normalized parameters and remember the cached value they were
+ * encoded from. When the underlying cache hands out a different value (refresh, reload, eviction) the
+ * body is re-encoded on the next request, and bodies are dropped with the entry they were encoded from
+ * ({@link CacheEntryRemovedEvent}), so a body never outlives its cache entry. A hit costs a
+ * hash lookup and an identity check. The entity tag is a hash of the encoded bytes.
+ *
+ * Standings rows and pages are kept with all their fields only. A {@code fields} selection is encoded per
+ * request: there are thousands of them per row, and caching them would let clients evict the hot bodies.
+ * Such a body is only gzipped when the client takes gzip. Pages are sent without validators, so they
+ * have no entity tag.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ObjectMapper objectMapper;
+    private final StandingsJsonWriter standingsWriter;
+    private final ResponseCompression compression;
+    private final Cache<List<Object>, Body> bodies;
+
+    public ResponseBodyCache(ObjectMapper objectMapper, StandingsJsonWriter standingsWriter,
+                             ResponseCompression compression,
+                             @Value("${app.response-cache.max-entries:10000}") long maxEntries) {
+        this.objectMapper = objectMapper;
+        this.standingsWriter = standingsWriter;
+        this.compression = compression;
+        this.bodies = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    public Body forCountries(List<CountryDTO> countries) {
+        return get(List.of("countries"), countries, () -> serialize(countries), true);
+    }
+
+    public Body forLeagues(String countryId, List<LeagueDTO> leagues) {
+        return get(List.of("leagues", countryId), leagues, () -> serialize(leagues), true);
+    }
+
+    /**
+     * Keyed by the resolved row rather than the requested names, so every spelling of a team shares one
+     * body. Only kept with all fields ({@link StandingsJsonWriter#parseFields}); {@code gzip} is whether
+     * the client takes gzip, which a body encoded for this request only needs then.
+     */
+    public Body forTeamStanding(TeamRow team, int fields, boolean gzip) {
+        if (fields != StandingsJsonWriter.ROW_FIELDS) {
+            return encode(team.table(), standingsWriter.writeRow(team.table(), team.row(), fields), gzip, true);
+        }
+        return get(List.of("team", team.leagueId(), team.row()), team.table(),
+                () -> standingsWriter.writeRow(team.table(), team.row(), fields), true);
+    }
+
+    /**
+     * A page of a league table or of the leaderboard, keyed by ranking, sort and range and re-encoded
+     * when the ranking is rebuilt. Only kept with all fields, and when not empty; {@code gzip} is as for
+     * {@link #forTeamStanding}. Without an entity tag.
+     */
+    public Body forPage(StandingsRankings.Page page, int fields, boolean gzip) {
+        StandingsRankings.Ranking ranking = page.ranking();
+        if (fields != StandingsJsonWriter.RANKED_FIELDS || page.from() > page.to()) {
+            return encode(ranking, standingsWriter.writePage(page, fields), gzip, false);
+        }
+        return get(List.of("page", ranking.name(), page.sort(), page.from(), page.to()), ranking,
+                () -> standingsWriter.writePage(page, fields), false);
+    }
+
+    /**
+     * Drops the bodies encoded from an evicted cache entry, or from every entry of a cleared cache. A standings
+     * entry takes the team rows of its table and the pages of every ranking built from it, the leaderboard included.
+     */
+    @EventListener
+    public void onCacheEntryRemoved(CacheEntryRemovedEvent event) {
+        String key = event.key() == null ? null : String.valueOf(event.key());
+        if (CacheConfig.COUNTRIES_CACHE.equals(event.cacheName())) {
+            bodies.invalidate(List.of("countries"));
+        } else if (CacheConfig.LEAGUES_CACHE.equals(event.cacheName())) {
+            bodies.asMap().keySet().removeIf(k -> "leagues".equals(k.get(0)) && (key == null || key.equals(k.get(1))));
+        } else if (CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName())) {
+            bodies.asMap().values().removeIf(body -> body.source() instanceof StandingsTable table
+                    ? key == null || key.equals(table.getLeagueId())
+                    : body.source() instanceof StandingsRankings.Ranking ranking && (key == null || ranking.covers(key)));
+        }
+    }
+
+    /**
+     * Returns the encoded body for {@code key}, encoding it if there is no body yet or it was encoded
+     * from a different {@code source}. Kept bodies are shared by all clients, so they are always gzipped.
+     */
+    private Body get(List<Object> key, Object source, Supplier<byte[]> json, boolean eTag) {
+        Body body = bodies.getIfPresent(key);
+        if (body == null || body.source() != source) {
+            body = encode(source, json.get(), true, eTag);
+            bodies.put(key, body);
+        }
+        return body;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        }
+    }
+
+    private Body encode(Object source, byte[] json, boolean gzip, boolean eTag) {
+        byte[] gzipped = gzip ? compression.gzip(json) : null;
+        if (!eTag) {
+            return new Body(source, json, null, gzipped, null);
+        }
+        String tag = "\"" + Long.toHexString(hash(json)) + "\"";
+        return gzipped != null
+                ? new Body(source, json, tag, gzipped, tag.substring(0, tag.length() - 1) + "-gzip\"")
+                : new Body(source, json, tag, null, null);
+    }
+
+    private static long hash(byte[] bytes) {
+        long h = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * An encoded response body. {@code gzip} and {@code gzipETag} are null when it is not worth compressing
+     * or not wanted; the gzip representation has its own entity tag. Both tags are null for pages.
+     */
+    public record Body(Object source, byte[] json, String eTag, byte[] gzip, String gzipETag) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.footballapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip for JSON response bodies, offered to clients that accept it. Bodies under
+ * {@code app.response-compression.min-size} bytes are sent as they are: there the gzip framing and the
+ * client's inflate cost more than the few bytes saved.
+ */
+@Component
+public class ResponseCompression {
+
+    private final int minSize;
+
+    public ResponseCompression(@Value("${app.response-compression.min-size:256}") int minSize) {
+        this.minSize = minSize;
+    }
+
+    /**
+     * The gzipped {@code body}, or null when it is under the size threshold or would not get smaller.
+     */
+    public byte[] gzip(byte[] body) {
+        if (body.length < minSize) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size() < body.length ? out.toByteArray() : null;
+    }
+}
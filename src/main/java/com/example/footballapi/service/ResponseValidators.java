@@ -0,0 +1,46 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * HTTP validators for responses served from the caches, so polling clients can revalidate with
+ * {@code If-None-Match} / {@code If-Modified-Since} and receive a 304 instead of the full body.
+ *
+ * The entity tag comes with the encoded body ({@link ResponseBodyCache}); this class supplies the rest:
+ * {@code Last-Modified} is the time the underlying entry was written to the cache and {@code max-age}
+ * the time left until its refresh point (the cache TTL from {@link CacheConfig}).
+ */
+@Component
+public class ResponseValidators {
+
+    private final CacheManager cacheManager;
+
+    public ResponseValidators(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public Validators forEntry(String cacheName, Object key) {
+        if (!(cacheManager.getCache(cacheName) instanceof CacheConfig.RefreshAheadCaffeineCache cache)) {
+            return new Validators(Optional.empty(), Duration.ZERO);
+        }
+        return cache.ageOf(key)
+                .map(age -> {
+                    Duration remaining = cache.getRefreshesAfter().minus(age);
+                    return new Validators(Optional.of(Instant.now().minus(age)),
+                            remaining.isNegative() ? Duration.ZERO : remaining);
+                })
+                .orElseGet(() -> new Validators(Optional.empty(), Duration.ZERO));
+    }
+
+    /**
+     * Last modification time and remaining freshness of a cached response.
+     */
+    public record Validators(Optional<Instant> lastModified, Duration maxAge) {
+    }
+}
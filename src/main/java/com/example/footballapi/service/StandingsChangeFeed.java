@@ -0,0 +1,248 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryUpdatedEvent;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.model.TeamRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live standings as Server-Sent Events, per league or per team.
+ *
+ * A subscriber first receives a {@code snapshot} event with the current rows, then an {@code update}
+ * event with only the rows that changed (position, points, ...) each time a new table for the league
+ * is written to the standings cache, whether by the prefetcher, a background refresh or a miss. The
+ * diff against the previous table and the JSON of the changed rows are computed once per league and
+ * handed to every subscriber.
+ *
+ * Each subscriber has its own queue of {@code app.feed.buffer-size} events, drained as fast as its
+ * connection allows. A subscriber whose queue is full is disconnected rather than slowing down the
+ * refresh or the other subscribers, at once rather than after it has read what is queued; on reconnect
+ * it starts again from a snapshot. Leagues are only
+ * tracked while they have subscribers.
+ */
+@Service
+public class StandingsChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandingsChangeFeed.class);
+
+    private final FootballApiService footballApiService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, LeagueFeed> feeds = new ConcurrentHashMap<>();
+
+    @Value("${app.feed.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${app.feed.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    public StandingsChangeFeed(FootballApiService footballApiService, ObjectMapper objectMapper) {
+        this.footballApiService = footballApiService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Subscribes to a whole league, or to a single team when {@code teamName} is given. Country, league and
+     * team are resolved (and a missing one reported) before the stream starts.
+     */
+    public Flux<ServerSentEvent<String>> subscribe(String countryName, String leagueName, String teamName) {
+        String leagueId;
+        String teamId = null;
+        if (teamName == null || teamName.trim().isEmpty()) {
+            footballApiService.checkSupported(countryName);
+            leagueId = footballApiService.findLeagueId(countryName, leagueName);
+        } else {
+            TeamRow team = footballApiService.findTeamRow(countryName, leagueName, teamName);
+            leagueId = team.leagueId();
+            teamId = team.table().teamId(team.row());
+        }
+        StandingsTable current = footballApiService.getStandingsTable(leagueId);
+        Subscriber subscriber = new Subscriber(teamId,
+                Sinks.many().unicast().onBackpressureBuffer(Queues.<ServerSentEvent<String>>get(bufferSize).get()),
+                Sinks.empty());
+        attach(leagueId, current, subscriber);
+
+        Flux<ServerSentEvent<String>> keepAlive = Flux.interval(heartbeat, heartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<String>builder().comment("keep-alive").build());
+        // A unicast sink only signals an error after its queue is drained, so the disconnect has its own signal.
+        Flux<ServerSentEvent<String>> disconnect = subscriber.disconnect().asMono()
+                .thenMany(Flux.<ServerSentEvent<String>>empty());
+        return Flux.merge(subscriber.events().asFlux(), keepAlive, disconnect)
+                .doFinally(signal -> detach(leagueId, subscriber));
+    }
+
+    /**
+     * Diffs a newly cached standings table against the previous one and pushes the changed rows.
+     */
+    @EventListener
+    public void onCacheEntryUpdated(CacheEntryUpdatedEvent event) {
+        if (!CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName())
+                || !(event.value() instanceof StandingsTable table) || table.isEmpty()) {
+            return;
+        }
+        LeagueFeed feed = feeds.get(String.valueOf(event.key()));
+        if (feed == null) {
+            return;
+        }
+        try {
+            feed.publish(table);
+        } catch (RuntimeException e) {
+            // Never fail the cache write that triggered this.
+            logger.warn("Could not publish standings update for leagueId {}: {}", event.key(), e.getMessage());
+        }
+    }
+
+    private void attach(String leagueId, StandingsTable current, Subscriber subscriber) {
+        while (true) {
+            LeagueFeed feed = feeds.computeIfAbsent(leagueId, id -> new LeagueFeed(current));
+            if (feed.add(subscriber)) {
+                return;
+            }
+            // The feed was closed by its last subscriber leaving in the meantime.
+            feeds.remove(leagueId, feed);
+        }
+    }
+
+    private void detach(String leagueId, Subscriber subscriber) {
+        LeagueFeed feed = feeds.get(leagueId);
+        if (feed != null && feed.remove(subscriber)) {
+            feeds.remove(leagueId, feed);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize standings event", e);
+        }
+    }
+
+    /**
+     * Subscribers of one league and the table they were last sent. All access is synchronized on the feed,
+     * which also serializes the emissions into each subscriber's sink.
+     */
+    private final class LeagueFeed {
+
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private StandingsTable table;
+        private long version;
+        private boolean closed;
+
+        LeagueFeed(StandingsTable table) {
+            this.table = table;
+        }
+
+        synchronized boolean add(Subscriber subscriber) {
+            if (closed) {
+                return false;
+            }
+            subscribers.add(subscriber);
+            int[] rows = subscriber.teamId() == null ? allRows(table) : rowsOf(table, subscriber.teamId());
+            subscriber.events().tryEmitNext(event("snapshot", rowsJson(table, rows)));
+            return true;
+        }
+
+        /**
+         * Returns whether the feed was closed because this was its last subscriber.
+         */
+        synchronized boolean remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            if (subscribers.isEmpty()) {
+                closed = true;
+            }
+            return closed;
+        }
+
+        synchronized void publish(StandingsTable next) {
+            if (next == table) {
+                return;
+            }
+            int[] changed = next.changedRows(table);
+            table = next;
+            if (changed.length == 0) {
+                return;
+            }
+            version++;
+            // Serialize each changed row once and share it between all subscribers.
+            String[] rowJson = new String[changed.length];
+            for (int i = 0; i < changed.length; i++) {
+                rowJson[i] = toJson(next.toDto(changed[i]));
+            }
+            ServerSentEvent<String> leagueEvent = event("update", "[" + String.join(",", rowJson) + "]");
+            for (Subscriber subscriber : List.copyOf(subscribers)) {
+                ServerSentEvent<String> event = leagueEvent;
+                if (subscriber.teamId() != null) {
+                    int i = indexOfTeam(next, changed, subscriber.teamId());
+                    if (i < 0) {
+                        continue;
+                    }
+                    event = event("update", "[" + rowJson[i] + "]");
+                }
+                if (subscriber.events().tryEmitNext(event).isFailure()) {
+                    logger.info("Disconnecting slow standings subscriber of leagueId {}", next.getLeagueId());
+                    subscriber.disconnect().tryEmitError(new IllegalStateException("Subscriber is not keeping up."));
+                    subscribers.remove(subscriber);
+                }
+            }
+        }
+
+        private ServerSentEvent<String> event(String type, String data) {
+            return ServerSentEvent.<String>builder().id(Long.toString(version)).event(type).data(data).build();
+        }
+
+        private String rowsJson(StandingsTable source, int[] rows) {
+            List<Object> dtos = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                dtos.add(source.toDto(row));
+            }
+            return toJson(dtos);
+        }
+    }
+
+    private static int[] allRows(StandingsTable table) {
+        int[] rows = new int[table.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    private static int[] rowsOf(StandingsTable table, String teamId) {
+        for (int i = 0; i < table.size(); i++) {
+            if (teamId.equals(table.teamId(i))) {
+                return new int[]{i};
+            }
+        }
+        return new int[0];
+    }
+
+    private static int indexOfTeam(StandingsTable table, int[] changed, String teamId) {
+        for (int i = 0; i < changed.length; i++) {
+            if (teamId.equals(table.teamId(changed[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Subscriber(String teamId, Sinks.Many<ServerSentEvent<String>> events, Sinks.Empty<Void> disconnect) {
+    }
+}
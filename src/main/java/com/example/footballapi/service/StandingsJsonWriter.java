@@ -0,0 +1,207 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.dto.RankedStandingDTO;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.model.StandingsTable;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Writes standings rows as JSON straight from the columns of a {@link StandingsTable}, with all fields or
+ * only those a client selected ({@code fields=}), without creating a {@link TeamStandingDTO} or
+ * {@link RankedStandingDTO} per row. With all fields the output is byte-identical to serializing those
+ * DTOs with the application's ObjectMapper, whose generator settings it shares.
+ *
+ * A selection is a bit set of {@link Field}s; fields are always written in the DTO's order.
+ */
+@Component
+public class StandingsJsonWriter {
+
+    /**
+     * The JSON properties of a standings row. {@code rank} and {@code goal_difference} only exist on ranked rows.
+     */
+    public enum Field {
+        RANK("rank", true),
+        COUNTRY_NAME("country_name", false),
+        LEAGUE_ID("league_id", false),
+        LEAGUE_NAME("league_name", false),
+        TEAM_ID("team_id", false),
+        TEAM_NAME("team_name", false),
+        POSITION("overall_league_position", false),
+        PLAYED("overall_league_payed", false),
+        WON("overall_league_W", false),
+        DRAWN("overall_league_D", false),
+        LOST("overall_league_L", false),
+        GOALS_FOR("overall_league_GF", false),
+        GOALS_AGAINST("overall_league_GA", false),
+        POINTS("overall_league_PTS", false),
+        GOAL_DIFFERENCE("goal_difference", true);
+
+        private final SerializedString jsonName;
+        private final boolean rankedOnly;
+
+        Field(String jsonName, boolean rankedOnly) {
+            this.jsonName = new SerializedString(jsonName);
+            this.rankedOnly = rankedOnly;
+        }
+
+        public String jsonName() {
+            return jsonName.getValue();
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    /** Every field of a ranked row. */
+    public static final int RANKED_FIELDS = (1 << FIELDS.length) - 1;
+
+    /** Every field of a plain row. */
+    public static final int ROW_FIELDS = RANKED_FIELDS & ~Field.RANK.bit() & ~Field.GOAL_DIFFERENCE.bit();
+
+    private final JsonFactory jsonFactory;
+
+    public StandingsJsonWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Parses a comma-separated list of JSON property names (case-insensitive) into a selection; all fields
+     * when {@code fields} is null.
+     *
+     * @throws IllegalArgumentException for an empty list or a name that is not a field of the row
+     */
+    public int parseFields(String fields, boolean ranked) {
+        int all = ranked ? RANKED_FIELDS : ROW_FIELDS;
+        if (fields == null) {
+            return all;
+        }
+        int selection = 0;
+        for (String name : fields.split(",", -1)) {
+            Field field = find(name.trim(), all);
+            if (field == null) {
+                throw new IllegalArgumentException("Fields must be a comma-separated list of: " + Arrays.stream(FIELDS)
+                        .filter(f -> (all & f.bit()) != 0).map(Field::jsonName).collect(Collectors.joining(", ")) + ".");
+            }
+            selection |= field.bit();
+        }
+        return selection;
+    }
+
+    private static Field find(String name, int allowed) {
+        for (Field field : FIELDS) {
+            if ((allowed & field.bit()) != 0 && field.jsonName().toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One row as an object, like a {@link TeamStandingDTO}.
+     */
+    public byte[] writeRow(StandingsTable table, int row, int fields) {
+        ByteArrayBuilder out = new ByteArrayBuilder();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            char[] digits = new char[11];
+            generator.writeStartObject();
+            writeFields(generator, table, row, fields, digits);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The rows of a page as an array, like a list of {@link RankedStandingDTO}s.
+     */
+    public byte[] writePage(StandingsRankings.Page page, int fields) {
+        StandingsRankings.Ranking ranking = page.ranking();
+        ByteArrayBuilder out = new ByteArrayBuilder();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            char[] digits = new char[11];
+            generator.writeStartArray();
+            for (int rank = page.from(); rank <= page.to(); rank++) {
+                int entry = ranking.entry(page.sort(), rank);
+                generator.writeStartObject();
+                if ((fields & Field.RANK.bit()) != 0) {
+                    generator.writeFieldName(Field.RANK.jsonName);
+                    generator.writeNumber(rank);
+                }
+                writeFields(generator, ranking.table(entry), ranking.row(entry), fields, digits);
+                int goalDifference = ranking.goalDifference(entry);
+                // Left out when unknown, like the null goalDifference of a RankedStandingDTO.
+                if ((fields & Field.GOAL_DIFFERENCE.bit()) != 0 && goalDifference != StandingsTable.MISSING) {
+                    generator.writeFieldName(Field.GOAL_DIFFERENCE.jsonName);
+                    generator.writeNumber(goalDifference);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFields(JsonGenerator generator, StandingsTable table, int row, int fields, char[] digits)
+            throws IOException {
+        for (Field field : FIELDS) {
+            if (field.rankedOnly || (fields & field.bit()) == 0) {
+                continue;
+            }
+            generator.writeFieldName(field.jsonName);
+            switch (field) {
+                case COUNTRY_NAME -> generator.writeString(table.getCountryName());
+                case LEAGUE_ID -> generator.writeString(table.getLeagueId());
+                case LEAGUE_NAME -> generator.writeString(table.getLeagueName());
+                case TEAM_ID -> generator.writeString(table.teamId(row));
+                case TEAM_NAME -> generator.writeString(table.teamName(row));
+                case POSITION -> writeCell(generator, table.position(row), digits);
+                case PLAYED -> writeCell(generator, table.played(row), digits);
+                case WON -> writeCell(generator, table.won(row), digits);
+                case DRAWN -> writeCell(generator, table.drawn(row), digits);
+                case LOST -> writeCell(generator, table.lost(row), digits);
+                case GOALS_FOR -> writeCell(generator, table.goalsFor(row), digits);
+                case GOALS_AGAINST -> writeCell(generator, table.goalsAgainst(row), digits);
+                case POINTS -> writeCell(generator, table.points(row), digits);
+                default -> throw new IllegalStateException("Not a row field: " + field);
+            }
+        }
+    }
+
+    /**
+     * A numeric cell as the string the upstream sent ("" when it was missing), formatted into
+     * {@code digits} rather than a new String.
+     */
+    private static void writeCell(JsonGenerator generator, int value, char[] digits) throws IOException {
+        if (value == StandingsTable.MISSING) {
+            generator.writeString(digits, 0, 0);
+            return;
+        }
+        int pos = digits.length;
+        long rest = Math.abs((long) value);
+        do {
+            digits[--pos] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest > 0);
+        if (value < 0) {
+            digits[--pos] = '-';
+        }
+        generator.writeString(digits, pos, digits.length - pos);
+    }
+}
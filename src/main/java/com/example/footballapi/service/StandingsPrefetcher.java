@@ -0,0 +1,206 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.SharedCacheTier;
+import com.example.footballapi.config.TaskExecutors;
+import com.example.footballapi.config.UpstreamRateLimiter;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.model.StandingsTable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps the standings of every league in the supported countries hot.
+ *
+ * On startup (as an {@link ApplicationRunner}, i.e. before the application reports ready) it resolves the
+ * supported countries and their leagues and loads standings for each of them into the caches and the
+ * lookup index. The same pass then re-runs on {@code app.prefetch.cron}. Standings fetches run in
+ * parallel but never more than {@code app.prefetch.max-concurrency} at a time, to stay within the
+ * upstream rate limit. When the caches were restored from a snapshot, the startup pass runs in the
+ * background instead. In adaptive mode, leagues with live matches are additionally refreshed every
+ * {@code app.prefetch.adaptive.live-interval}, while dormant leagues only follow the cron. All of its
+ * upstream calls run at background priority of the {@link UpstreamRateLimiter}. With a shared cache tier,
+ * a forced refresh of a league that another instance is refreshing, or has just refreshed, is skipped;
+ * its result reaches this instance through the shared tier. Without a configured API key nothing is
+ * prefetched.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.prefetch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StandingsPrefetcher implements ApplicationRunner, SchedulingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandingsPrefetcher.class);
+
+    private final FootballApiService footballApiService;
+    private final ApiFootballClient apiClient;
+    private final FootballLookupIndex lookupIndex;
+    private final CacheSnapshotStore snapshotStore;
+    private final UpstreamRateLimiter rateLimiter;
+    private final SharedCacheTier sharedTier;
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+    private final Set<String> knownLeagueIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.prefetch.on-startup:true}")
+    private boolean prefetchOnStartup;
+
+    @Value("${app.prefetch.adaptive.enabled:false}")
+    private boolean adaptive;
+
+    @Value("${app.prefetch.adaptive.live-interval:PT1M}")
+    private Duration liveInterval;
+
+    public StandingsPrefetcher(FootballApiService footballApiService, ApiFootballClient apiClient,
+                               FootballLookupIndex lookupIndex, CacheSnapshotStore snapshotStore,
+                               UpstreamRateLimiter rateLimiter, SharedCacheTier sharedTier,
+                               @Value("${app.prefetch.max-concurrency:4}") int maxConcurrency,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.footballApiService = footballApiService;
+        this.apiClient = apiClient;
+        this.lookupIndex = lookupIndex;
+        this.snapshotStore = snapshotStore;
+        this.rateLimiter = rateLimiter;
+        this.sharedTier = sharedTier;
+        this.maxConcurrency = maxConcurrency;
+        this.executor = TaskExecutors.bounded("prefetch-", maxConcurrency, Integer.MAX_VALUE, virtualThreads);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!prefetchOnStartup) {
+            return;
+        }
+        if (snapshotStore.isRestored()) {
+            // Already answering from the restored snapshot; bring it up to date without holding back readiness.
+            CompletableFuture.runAsync(() -> prefetch(true), executor);
+        } else {
+            prefetch(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.prefetch.cron:0 */30 * * * *}")
+    public void scheduledRefresh() {
+        prefetch(true);
+    }
+
+    /**
+     * Schedules the live-league refresh, only in adaptive mode.
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (adaptive) {
+            registrar.addFixedDelayTask(new FixedDelayTask(this::refreshLiveLeagues, liveInterval, liveInterval));
+        }
+    }
+
+    public void refreshLiveLeagues() {
+        if (knownLeagueIds.isEmpty()) {
+            return;
+        }
+        Set<String> liveLeagueIds;
+        try {
+            liveLeagueIds = rateLimiter.background(apiClient::fetchLiveLeagueIds);
+        } catch (Exception e) {
+            // APIFootball answers "no event found" with an error object rather than an empty list.
+            logger.debug("No live events available: {}", e.getMessage());
+            return;
+        }
+        List<String> leagueIds = liveLeagueIds.stream().filter(knownLeagueIds::contains).toList();
+        if (!leagueIds.isEmpty()) {
+            logger.info("Refreshing {} league(s) with live matches: {}", leagueIds.size(), leagueIds);
+            awaitAll(leagueIds, true);
+        }
+    }
+
+    /**
+     * Resolves all supported countries and their leagues and loads standings for each league.
+     * With {@code forceRefresh} the standings are re-fetched even if they are already cached.
+     */
+    public void prefetch(boolean forceRefresh) {
+        if (!apiClient.isConfigured()) {
+            logger.warn("Skipping standings prefetch: apifootball.api.key is not configured.");
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> leagueIds = new ArrayList<>();
+        for (String countryName : footballApiService.getSupportedCountries()) {
+            try {
+                String countryId = rateLimiter.background(() -> footballApiService.getCountryIdByName(countryName));
+                List<LeagueDTO> leagues = rateLimiter.background(() -> footballApiService.getLeaguesByCountryId(countryId));
+                lookupIndex.indexLeagues(countryId, leagues);
+                leagues.forEach(league -> leagueIds.add(league.getLeagueId()));
+            } catch (Exception e) {
+                logger.warn("Prefetch could not resolve leagues for '{}': {}", countryName, e.getMessage());
+            }
+        }
+        knownLeagueIds.addAll(leagueIds);
+
+        int loaded = awaitAll(leagueIds, forceRefresh);
+        snapshotStore.flush();
+        logger.info("Prefetched standings for {}/{} league(s) in {} ms", loaded, leagueIds.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int awaitAll(List<String> leagueIds, boolean forceRefresh) {
+        AtomicInteger loaded = new AtomicInteger();
+        Queue<String> pending = new ConcurrentLinkedQueue<>(leagueIds);
+        Runnable worker = () -> {
+            for (String leagueId = pending.poll(); leagueId != null; leagueId = pending.poll()) {
+                if (prefetchLeague(leagueId, forceRefresh)) {
+                    loaded.incrementAndGet();
+                }
+            }
+        };
+        // The calling thread is one of the workers: a pass running on the executor itself (the background
+        // startup pass) then never waits for the slot it holds.
+        CompletableFuture<?>[] helpers = IntStream.range(1, Math.min(maxConcurrency, leagueIds.size()))
+                .mapToObj(i -> CompletableFuture.runAsync(worker, executor))
+                .toArray(CompletableFuture[]::new);
+        worker.run();
+        CompletableFuture.allOf(helpers).join();
+        return loaded.get();
+    }
+
+    private boolean prefetchLeague(String leagueId, boolean forceRefresh) {
+        if (forceRefresh && !sharedTier.claimRefresh(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, leagueId)) {
+            logger.debug("Standings for leagueId {} are refreshed by another instance", leagueId);
+            return true;
+        }
+        try {
+            StandingsTable standings = rateLimiter.background(() -> forceRefresh
+                    ? footballApiService.refreshStandingsTable(leagueId)
+                    : footballApiService.getStandingsTable(leagueId));
+            lookupIndex.indexStandings(leagueId, standings);
+            return !standings.isEmpty();
+        } catch (Exception e) {
+            logger.warn("Prefetch of standings for leagueId {} failed: {}", leagueId, e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
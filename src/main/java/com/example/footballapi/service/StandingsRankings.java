@@ -0,0 +1,309 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.config.CacheEntryUpdatedEvent;
+import com.example.footballapi.dto.RankedStandingDTO;
+import com.example.footballapi.model.StandingsTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Ordered views of the cached standings: a league's table and a leaderboard across leagues, sorted by
+ * any {@link Sort} and sliced by rank.
+ *
+ * Goal difference and the row order for every sort are computed once per table, when it is written to
+ * the standings cache ({@link CacheEntryUpdatedEvent}), so a query only writes out the requested ranks.
+ * Like {@link FootballLookupIndex}, a ranking is remembered together with the tables it was built from
+ * and rebuilt when the cache hands out a different one; the leaderboard is rebuilt on the first query
+ * after any of its leagues changed. Rankings are dropped with the tables they were built from
+ * ({@link CacheEntryRemovedEvent}) and only kept while the cache still holds those tables, so they hold
+ * no table the cache has evicted.
+ *
+ * The leaderboard only covers the leagues whose standings are cached. It is partial, or empty, until the
+ * standings prefetch has run.
+ */
+@Component
+public class StandingsRankings {
+
+    /**
+     * Sort orders, best first. Ties are broken by points, goal difference, goals scored, league position
+     * and team name; values the upstream left empty sort last.
+     */
+    public enum Sort {
+        POSITION, POINTS, GOAL_DIFFERENCE, GOALS_FOR, GOALS_AGAINST;
+
+        public String param() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Sort fromParam(String value) {
+            for (Sort sort : values()) {
+                if (sort.param().equalsIgnoreCase(value == null ? "" : value.trim())) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("Sort must be one of " + Arrays.stream(values())
+                    .map(Sort::param).collect(Collectors.joining(", ")) + ".");
+        }
+    }
+
+    private static final String LEADERBOARD = "leaderboard";
+
+    private final CacheManager cacheManager;
+    private final Map<String, Ranking> byLeague = new ConcurrentHashMap<>();
+    // Guarded by this when written
+    private volatile Ranking leaderboard = Ranking.of(LEADERBOARD, List.of());
+
+    @Value("${app.rankings.max-rows:100}")
+    private int maxRows;
+
+    public StandingsRankings(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * The ranking of one league's table, built from {@code source} unless it is already known.
+     */
+    public Ranking rank(String leagueId, StandingsTable source) {
+        Ranking ranking = byLeague.get(leagueId);
+        if (ranking == null || !ranking.isBuiltFrom(List.of(source))) {
+            Ranking built = Ranking.of("league:" + leagueId, List.of(source));
+            // Checked under the map's lock for the league, so a concurrent eviction's event still drops it
+            byLeague.compute(leagueId, (key, current) -> isCurrent(leagueId, source) ? built : current);
+            ranking = built;
+        }
+        return ranking;
+    }
+
+    /**
+     * The ranking of all rows of {@code sources}, built unless it is already known for the same tables.
+     */
+    public Ranking leaderboard(List<StandingsTable> sources) {
+        Ranking ranking = leaderboard;
+        if (!ranking.isBuiltFrom(sources)) {
+            ranking = Ranking.of(LEADERBOARD, sources);
+            synchronized (this) {
+                if (sources.stream().allMatch(table -> isCurrent(table.getLeagueId(), table))) {
+                    leaderboard = ranking;
+                }
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * Validates a rank range for a leaderboard, which unlike a league table can be long.
+     */
+    public void checkLeaderboardRange(int from, int to) {
+        checkRange(from, to);
+        if (to - from >= maxRows) {
+            throw new IllegalArgumentException("A leaderboard page must not contain more than " + maxRows + " rows.");
+        }
+    }
+
+    static void checkRange(int from, int to) {
+        if (from < 1 || to < from) {
+            throw new IllegalArgumentException("Ranks must satisfy 1 <= from <= to.");
+        }
+    }
+
+    /**
+     * Ranks a newly cached table right away, so the first query after a refresh does not pay for it.
+     */
+    @EventListener
+    public void onCacheEntryUpdated(CacheEntryUpdatedEvent event) {
+        if (CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName())
+                && event.value() instanceof StandingsTable table && !table.isEmpty()) {
+            rank(String.valueOf(event.key()), table);
+        }
+    }
+
+    /**
+     * Drops the ranking of an evicted table, or of all of them when the standings cache was cleared, and
+     * the leaderboard built from it.
+     */
+    @EventListener
+    public void onCacheEntryRemoved(CacheEntryRemovedEvent event) {
+        if (CacheConfig.STANDINGS_BY_LEAGUE_CACHE.equals(event.cacheName())) {
+            if (event.key() == null) {
+                byLeague.clear();
+            } else {
+                byLeague.remove(String.valueOf(event.key()));
+            }
+            synchronized (this) {
+                leaderboard = Ranking.of(LEADERBOARD, List.of());
+            }
+        }
+    }
+
+    private boolean isCurrent(String leagueId, StandingsTable table) {
+        return CacheConfig.isCurrent(cacheManager, CacheConfig.STANDINGS_BY_LEAGUE_CACHE, leagueId, table);
+    }
+
+    /**
+     * Ranks {@code from} to {@code to} of a {@link Ranking} in {@code sort} order, written out as
+     * {@link RankedStandingDTO}s by {@link StandingsJsonWriter}. Empty when {@code from} is past the end.
+     */
+    public record Page(Ranking ranking, Sort sort, int from, int to) {
+    }
+
+    /**
+     * The rows of one or more tables with their goal difference and, per {@link Sort}, the row order.
+     * Row {@code e} is row {@code rowOf[e]} of {@code tables[tableOf[e]]}. The {@code name} tells which
+     * ranking it is ({@code league:<id>} or {@code leaderboard}); rebuilding it keeps the name.
+     */
+    public static final class Ranking {
+
+        private final String name;
+        private final StandingsTable[] tables;
+        private final int[] tableOf;
+        private final int[] rowOf;
+        private final int[] goalDifference;
+        private final int[][] orders;
+
+        private Ranking(String name, StandingsTable[] tables, int[] tableOf, int[] rowOf) {
+            this.name = name;
+            this.tables = tables;
+            this.tableOf = tableOf;
+            this.rowOf = rowOf;
+            this.goalDifference = new int[rowOf.length];
+            for (int e = 0; e < rowOf.length; e++) {
+                int goalsFor = column(Sort.GOALS_FOR, e);
+                int goalsAgainst = column(Sort.GOALS_AGAINST, e);
+                goalDifference[e] = goalsFor == StandingsTable.MISSING || goalsAgainst == StandingsTable.MISSING
+                        ? StandingsTable.MISSING : goalsFor - goalsAgainst;
+            }
+            this.orders = new int[Sort.values().length][];
+            for (Sort sort : Sort.values()) {
+                orders[sort.ordinal()] = order(sort);
+            }
+        }
+
+        static Ranking of(String name, List<StandingsTable> sources) {
+            StandingsTable[] tables = sources.toArray(StandingsTable[]::new);
+            int size = sources.stream().mapToInt(StandingsTable::size).sum();
+            int[] tableOf = new int[size];
+            int[] rowOf = new int[size];
+            int e = 0;
+            for (int t = 0; t < tables.length; t++) {
+                for (int row = 0; row < tables[t].size(); row++, e++) {
+                    tableOf[e] = t;
+                    rowOf[e] = row;
+                }
+            }
+            return new Ranking(name, tables, tableOf, rowOf);
+        }
+
+        String name() {
+            return name;
+        }
+
+        /**
+         * Whether one of the tables it was built from is the table of {@code leagueId}.
+         */
+        boolean covers(String leagueId) {
+            for (StandingsTable table : tables) {
+                if (leagueId.equals(table.getLeagueId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int size() {
+            return rowOf.length;
+        }
+
+        /**
+         * The rows ranked {@code from} to {@code to} (1-based, inclusive) in {@code sort} order; ranks past
+         * the end are left out.
+         */
+        public Page page(Sort sort, int from, int to) {
+            checkRange(from, to);
+            return new Page(this, sort, from, Math.min(to, size()));
+        }
+
+        /**
+         * The row ranked {@code rank} in {@code sort} order.
+         */
+        int entry(Sort sort, int rank) {
+            return orders[sort.ordinal()][rank - 1];
+        }
+
+        StandingsTable table(int entry) {
+            return tables[tableOf[entry]];
+        }
+
+        int row(int entry) {
+            return rowOf[entry];
+        }
+
+        /**
+         * Goals scored minus goals conceded, {@link StandingsTable#MISSING} if either is unknown.
+         */
+        int goalDifference(int entry) {
+            return goalDifference[entry];
+        }
+
+        boolean isBuiltFrom(List<StandingsTable> sources) {
+            if (sources.size() != tables.length) {
+                return false;
+            }
+            for (int t = 0; t < tables.length; t++) {
+                if (tables[t] != sources.get(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int[] order(Sort sort) {
+            Comparator<Integer> byTeam = Comparator.comparing(e -> tables[tableOf[e]].teamName(rowOf[e]),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            Comparator<Integer> tieBreak = byValue(Sort.POINTS).thenComparing(byValue(Sort.GOAL_DIFFERENCE))
+                    .thenComparing(byValue(Sort.GOALS_FOR)).thenComparing(byValue(Sort.POSITION)).thenComparing(byTeam);
+            Integer[] entries = new Integer[rowOf.length];
+            Arrays.setAll(entries, e -> e);
+            Arrays.sort(entries, byValue(sort).thenComparing(tieBreak));
+            return Arrays.stream(entries).mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Best first: ascending for position and goals conceded, descending otherwise; missing values last.
+         */
+        private Comparator<Integer> byValue(Sort sort) {
+            boolean ascending = sort == Sort.POSITION || sort == Sort.GOALS_AGAINST;
+            return (a, b) -> {
+                int x = column(sort, a);
+                int y = column(sort, b);
+                if (x == StandingsTable.MISSING || y == StandingsTable.MISSING) {
+                    return Boolean.compare(x == StandingsTable.MISSING, y == StandingsTable.MISSING);
+                }
+                return ascending ? Integer.compare(x, y) : Integer.compare(y, x);
+            };
+        }
+
+        private int column(Sort sort, int e) {
+            StandingsTable table = tables[tableOf[e]];
+            int row = rowOf[e];
+            return switch (sort) {
+                case POSITION -> table.position(row);
+                case POINTS -> table.points(row);
+                case GOAL_DIFFERENCE -> goalDifference[e];
+                case GOALS_FOR -> table.goalsFor(row);
+                case GOALS_AGAINST -> table.goalsAgainst(row);
+            };
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.footballapi.perf;
+
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.service.ApiFootballJsonDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of upstream payloads: Jackson data binding into the DTO arrays (the ObjectMapper
+ * configuration of the RestTemplate message converter) against the streaming
+ * {@link ApiFootballJsonDecoder} used by the clients. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiFootballJsonDecoder decoder;
+    private byte[] standings;
+    private byte[] leagues;
+    private byte[] countries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        decoder = new ApiFootballJsonDecoder(objectMapper);
+        standings = StubApiFootballServer.fixture("get_standings_152.json");
+        leagues = StubApiFootballServer.fixture("get_leagues_44.json");
+        countries = StubApiFootballServer.fixture("get_countries.json");
+    }
+
+    @Benchmark
+    public TeamStandingDTO[] decodeStandings() throws IOException {
+        return objectMapper.readValue(standings, TeamStandingDTO[].class);
+    }
+
+    @Benchmark
+    public LeagueDTO[] decodeLeagues() throws IOException {
+        return objectMapper.readValue(leagues, LeagueDTO[].class);
+    }
+
+    @Benchmark
+    public CountryDTO[] decodeCountries() throws IOException {
+        return objectMapper.readValue(countries, CountryDTO[].class);
+    }
+
+    @Benchmark
+    public StandingsTable streamStandings() throws IOException {
+        return decoder.readStandings(new ByteArrayInputStream(standings));
+    }
+
+    @Benchmark
+    public List<LeagueDTO> streamLeagues() throws IOException {
+        return decoder.readLeagues(new ByteArrayInputStream(leagues), league -> "44".equals(league.getCountryId()));
+    }
+
+    @Benchmark
+    public List<CountryDTO> streamCountries() throws IOException {
+        return decoder.readCountries(new ByteArrayInputStream(countries), country -> true);
+    }
+}
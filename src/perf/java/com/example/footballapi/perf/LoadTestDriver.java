@@ -0,0 +1,390 @@
+package com.example.footballapi.perf;
+
+import com.example.footballapi.FootballapiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test of the HTTP API, run offline against {@link StubApiFootballServer}:
+ *
+ * <pre>
+ * mvn -Pperf test-compile exec:exec@load-test -Dload.args="requests=20000 concurrency=32 latency=PT0.05S"
+ * </pre>
+ *
+ * Starts the stub with the given upstream {@code latency}, {@code jitter}, {@code error-rate} and
+ * {@code quota} (requests per second, 0 for none), then the application on a random port against it, with
+ * the on-disk snapshot off and any {@code --property=value} arguments passed on. {@code concurrency}
+ * closed-loop clients then replay a weighted {@code mix} of requests built from the fixtures: team
+ * standings (a few for unknown teams), league tables, leaderboards, searches, countries, leagues and
+ * batches. The first {@code warmup} requests are not measured.
+ *
+ * Each client draws its requests from its own generator seeded from {@code seed}, and so does the stub,
+ * so the same arguments replay the same requests against the same upstream behaviour. Throughput,
+ * status classes, p50/p95/p99/max latency per endpoint and the upstream calls made are printed and
+ * written as JSON to {@code out}.
+ */
+public final class LoadTestDriver {
+
+    enum Endpoint {
+        TEAM, TABLE, LEADERBOARD, SEARCH, COUNTRIES, LEAGUES, BATCH;
+
+        String param() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String[] SORTS = {"position", "points", "goal_difference", "goals_for", "goals_against"};
+    private static final String[] UPSTREAM_ACTIONS = {"get_countries", "get_leagues", "get_standings"};
+
+    private final Map<String, String> options;
+    private final List<String> applicationArgs;
+    private final Catalog catalog;
+    private final Endpoint[] endpointByWeight;
+
+    private LoadTestDriver(Map<String, String> options, List<String> applicationArgs) throws IOException {
+        this.options = options;
+        this.applicationArgs = applicationArgs;
+        this.catalog = Catalog.load();
+        this.endpointByWeight = parseMix(option("mix", "team:60,table:10,search:10,countries:5,leagues:5,batch:5,leaderboard:5"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Expected name=value or --property=value, got '" + arg + "'");
+            }
+        }
+        new LoadTestDriver(options, applicationArgs).run();
+    }
+
+    private void run() throws Exception {
+        long seed = Long.parseLong(option("seed", "42"));
+        int concurrency = Integer.parseInt(option("concurrency", "16"));
+        int perClient = Integer.parseInt(option("requests", "20000")) / concurrency;
+        int warmupPerClient = Integer.parseInt(option("warmup", "2000")) / concurrency;
+
+        try (StubApiFootballServer stub = StubApiFootballServer.start()
+                .latency(Duration.parse(option("latency", "PT0.02S")), Duration.parse(option("jitter", "PT0.01S")))
+                .errorRate(Double.parseDouble(option("error-rate", "0")))
+                .quota(Integer.parseInt(option("quota", "0")))
+                .seed(seed)) {
+            // Devtools, when on the classpath, would restart the application launched from this main method.
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            List<String> args = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--apifootball.api.url=" + stub.baseUrl(),
+                    "--apifootball.api.key=load-test",
+                    "--app.snapshot.enabled=false",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN"));
+            args.addAll(applicationArgs);
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FootballapiApplication.class)
+                    .run(args.toArray(String[]::new))) {
+                String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                System.out.printf("Load test: %d clients x %d requests (+%d warm-up) against %s, upstream %s%n",
+                        concurrency, perClient, warmupPerClient, baseUrl, options);
+
+                long[] upstreamBefore = new long[UPSTREAM_ACTIONS.length];
+                long[] measuredStart = new long[1];
+                CyclicBarrier warmedUp = new CyclicBarrier(concurrency, () -> {
+                    for (int a = 0; a < UPSTREAM_ACTIONS.length; a++) {
+                        upstreamBefore[a] = stub.calls(UPSTREAM_ACTIONS[a]);
+                    }
+                    measuredStart[0] = System.nanoTime();
+                });
+                HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+                List<Future<Samples>> results = new ArrayList<>();
+                for (int c = 0; c < concurrency; c++) {
+                    Random random = new Random(seed + c);
+                    results.add(clients.submit(() ->
+                            runClient(client, baseUrl, random, warmupPerClient, perClient, warmedUp)));
+                }
+                List<Samples> samples = new ArrayList<>();
+                for (Future<Samples> result : results) {
+                    samples.add(result.get());
+                }
+                double seconds = (System.nanoTime() - measuredStart[0]) / 1e9;
+                clients.shutdown();
+
+                Map<String, Long> upstream = new LinkedHashMap<>();
+                for (int a = 0; a < UPSTREAM_ACTIONS.length; a++) {
+                    upstream.put(UPSTREAM_ACTIONS[a], stub.calls(UPSTREAM_ACTIONS[a]) - upstreamBefore[a]);
+                }
+                upstream.put("injected_errors", stub.failed());
+                upstream.put("quota_rejections", stub.rejected());
+                report(samples, seconds, upstream);
+            }
+        }
+    }
+
+    private Samples runClient(HttpClient client, String baseUrl, Random random, int warmup, int measured,
+                              CyclicBarrier warmedUp) throws Exception {
+        Samples samples = new Samples(measured);
+        for (int i = 0; i < warmup + measured; i++) {
+            if (i == warmup) {
+                warmedUp.await();
+            }
+            Endpoint endpoint = endpointByWeight[random.nextInt(endpointByWeight.length)];
+            HttpRequest request = request(endpoint, baseUrl, random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = 0;
+            }
+            if (i >= warmup) {
+                samples.add(endpoint, System.nanoTime() - start, status);
+            }
+        }
+        if (measured == 0) {
+            warmedUp.await();
+        }
+        return samples;
+    }
+
+    private HttpRequest request(Endpoint endpoint, String baseUrl, Random random) {
+        Catalog.League league = catalog.leagues.get(random.nextInt(catalog.leagues.size()));
+        String team = league.teams[random.nextInt(league.teams.length)];
+        String path = switch (endpoint) {
+            // One lookup in twenty is for a team that does not exist.
+            case TEAM -> "/standings/team?countryName=" + encode(league.countryName) + "&leagueName=" + encode(league.name)
+                    + "&teamName=" + encode(random.nextInt(20) == 0 ? "Unknown FC" : team);
+            case TABLE -> "/standings/table?countryName=" + encode(league.countryName) + "&leagueName=" + encode(league.name)
+                    + "&sort=" + SORTS[random.nextInt(SORTS.length)] + (random.nextBoolean() ? "&to=" + (1 + random.nextInt(10)) : "");
+            case LEADERBOARD -> "/standings/leaderboard?sort=" + SORTS[random.nextInt(SORTS.length)] + "&to=20";
+            // What a user has typed so far.
+            case SEARCH -> "/search?q=" + encode(team.substring(0, Math.min(team.length(), 3 + random.nextInt(4))).toLowerCase(Locale.ROOT));
+            case COUNTRIES -> "/countries";
+            case LEAGUES -> "/leagues?countryId=" + league.countryId;
+            case BATCH -> null;
+        };
+        HttpRequest.Builder builder = HttpRequest.newBuilder().header("Accept-Encoding", "gzip");
+        if (path != null) {
+            return builder.uri(URI.create(baseUrl + "/api/football" + path)).GET().build();
+        }
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            Catalog.League item = catalog.leagues.get(random.nextInt(catalog.leagues.size()));
+            items.append(i > 0 ? "," : "").append("{\"countryName\":\"").append(item.countryName)
+                    .append("\",\"leagueName\":\"").append(item.name)
+                    .append("\",\"teamName\":\"").append(item.teams[random.nextInt(item.teams.length)]).append("\"}");
+        }
+        return builder.uri(URI.create(baseUrl + "/api/football/standings/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"items\":[" + items + "]}"))
+                .build();
+    }
+
+    private void report(List<Samples> samples, double seconds, Map<String, Long> upstream) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options);
+        result.put("application_args", applicationArgs);
+        long total = samples.stream().mapToLong(s -> s.count).sum();
+        result.put("requests", total);
+        result.put("seconds", round(seconds));
+        result.put("throughput_per_second", round(total / seconds));
+
+        System.out.printf("%n%-12s %8s %7s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "2xx", "4xx", "5xx", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Map<String, Object> stats = stats(samples, endpoint);
+            if ((long) stats.get("requests") > 0) {
+                endpoints.put(endpoint.param(), stats);
+                print(endpoint.param(), stats);
+            }
+        }
+        Map<String, Object> all = stats(samples, null);
+        endpoints.put("all", all);
+        print("all", all);
+        result.put("endpoints", endpoints);
+        result.put("upstream", upstream);
+
+        System.out.printf("%nThroughput: %.1f requests/s over %.1f s%nUpstream: %s%n",
+                total / seconds, seconds, upstream);
+        Path out = Path.of(option("out", "target/loadtest-result.json"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), result);
+        System.out.println("Results written to " + out);
+    }
+
+    /**
+     * Status classes and latency percentiles of one endpoint's samples, or of all of them.
+     */
+    private static Map<String, Object> stats(List<Samples> samples, Endpoint endpoint) {
+        long[] latencies = samples.stream()
+                .flatMapToLong(s -> Arrays.stream(s.latencies(endpoint)))
+                .sorted()
+                .toArray();
+        long[] statuses = new long[6];
+        for (Samples s : samples) {
+            for (int i = 0; i < s.count; i++) {
+                if (endpoint == null || s.endpoints[i] == endpoint.ordinal()) {
+                    statuses[s.statuses[i] / 100]++;
+                }
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", (long) latencies.length);
+        stats.put("2xx", statuses[2] + statuses[3]);
+        stats.put("4xx", statuses[4]);
+        stats.put("5xx", statuses[5]);
+        stats.put("failed_connections", statuses[0]);
+        stats.put("p50_ms", percentile(latencies, 0.50));
+        stats.put("p95_ms", percentile(latencies, 0.95));
+        stats.put("p99_ms", percentile(latencies, 0.99));
+        stats.put("max_ms", latencies.length > 0 ? round(latencies[latencies.length - 1] / 1e6) : 0.0);
+        return stats;
+    }
+
+    private static void print(String name, Map<String, Object> stats) {
+        System.out.printf("%-12s %8d %7d %7d %7d %9.3f %9.3f %9.3f %9.3f%n", name, stats.get("requests"),
+                stats.get("2xx"), stats.get("4xx"), stats.get("5xx"), stats.get("p50_ms"), stats.get("p95_ms"),
+                stats.get("p99_ms"), stats.get("max_ms"));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> byWeight = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            Endpoint endpoint = Endpoint.valueOf(entry[0].trim().toUpperCase(Locale.ROOT));
+            for (int i = 0; i < Integer.parseInt(entry[1].trim()); i++) {
+                byWeight.add(endpoint);
+            }
+        }
+        if (byWeight.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one endpoint a weight");
+        }
+        return byWeight.toArray(Endpoint[]::new);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Latency, endpoint and status of the measured requests of one client.
+     */
+    private static final class Samples {
+
+        private final long[] latencies;
+        private final byte[] endpoints;
+        private final short[] statuses;
+        private int count;
+
+        Samples(int capacity) {
+            latencies = new long[capacity];
+            endpoints = new byte[capacity];
+            statuses = new short[capacity];
+        }
+
+        void add(Endpoint endpoint, long nanos, int status) {
+            latencies[count] = nanos;
+            endpoints[count] = (byte) endpoint.ordinal();
+            statuses[count] = (short) status;
+            count++;
+        }
+
+        long[] latencies(Endpoint endpoint) {
+            long[] selected = new long[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (endpoint == null || endpoints[i] == endpoint.ordinal()) {
+                    selected[n++] = latencies[i];
+                }
+            }
+            return Arrays.copyOf(selected, n);
+        }
+    }
+
+    /**
+     * The leagues of the supported countries that have a standings fixture, with their team names.
+     */
+    private static final class Catalog {
+
+        private final List<League> leagues;
+
+        private Catalog(List<League> leagues) {
+            this.leagues = leagues;
+        }
+
+        record League(String countryId, String countryName, String id, String name, String[] teams) {
+        }
+
+        static Catalog load() throws IOException {
+            ObjectMapper mapper = new ObjectMapper();
+            List<League> leagues = new ArrayList<>();
+            for (JsonNode country : mapper.readTree(StubApiFootballServer.fixture("get_countries.json"))) {
+                byte[] countryLeagues = StubApiFootballServer.fixture("get_leagues_" + country.path("country_id").asText() + ".json");
+                if (countryLeagues == null) {
+                    continue;
+                }
+                for (JsonNode league : mapper.readTree(countryLeagues)) {
+                    byte[] standings = StubApiFootballServer.fixture("get_standings_" + league.path("league_id").asText() + ".json");
+                    if (standings == null) {
+                        continue;
+                    }
+                    List<String> teams = new ArrayList<>();
+                    mapper.readTree(standings).forEach(row -> teams.add(row.path("team_name").asText()));
+                    leagues.add(new League(country.path("country_id").asText(), country.path("country_name").asText(),
+                            league.path("league_id").asText(), league.path("league_name").asText(),
+                            teams.toArray(String[]::new)));
+                }
+            }
+            if (leagues.isEmpty()) {
+                throw new IllegalStateException("No league with a standings fixture found under fixtures/");
+            }
+            return new Catalog(leagues);
+        }
+    }
+}
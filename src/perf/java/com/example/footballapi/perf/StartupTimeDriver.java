@@ -0,0 +1,157 @@
+package com.example.footballapi.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the first served request of a freshly started instance, run offline against
+ * {@link StubApiFootballServer}:
+ *
+ * <pre>
+ * mvn -Pperf test-compile exec:exec@startup-test -Dstartup.args="runs=5 -- java -jar target/footballapi-0.0.1-SNAPSHOT.jar"
+ * </pre>
+ *
+ * Everything after {@code --} is the command that starts the application (by default the jar under
+ * {@code target/}), so the same measurement covers the plain jar, JVM flags such as a CDS archive and a
+ * native executable. Each of the {@code runs} starts it on a free port against the stub, with the on-disk
+ * snapshot off, and polls a team standing every {@code poll} until it is answered with 200; the time from
+ * launching the process to that answer includes the cold standings fetch behind it. The stub answers
+ * after {@code latency}. Per-run times and their median are printed and written as JSON to {@code out};
+ * the output of the last run is kept in {@code target/startup-run.log}.
+ */
+public final class StartupTimeDriver {
+
+    private static final String PROBE = "/api/football/standings/team?countryName=England&leagueName=Premier%20League&teamName=Arsenal";
+
+    private final Map<String, String> options;
+    private final List<String> command;
+
+    private StartupTimeDriver(Map<String, String> options, List<String> command) {
+        this.options = options;
+        this.command = command;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> command = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (arg.equals("--")) {
+                command.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            } else if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Expected name=value or -- followed by a command, got '" + arg + "'");
+            }
+        }
+        if (command.isEmpty()) {
+            command.addAll(List.of("java", "-jar", "target/footballapi-0.0.1-SNAPSHOT.jar"));
+        }
+        new StartupTimeDriver(options, command).run();
+    }
+
+    private void run() throws Exception {
+        int runs = Integer.parseInt(option("runs", "5"));
+        Duration timeout = Duration.parse(option("timeout", "PT60S"));
+        Duration poll = Duration.parse(option("poll", "PT0.02S"));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        File log = Path.of("target", "startup-run.log").toFile();
+        Files.createDirectories(log.toPath().toAbsolutePath().getParent());
+
+        long[] millis = new long[runs];
+        try (StubApiFootballServer stub = StubApiFootballServer.start()
+                .latency(Duration.parse(option("latency", "PT0S")), Duration.ZERO)) {
+            System.out.printf("Startup: %d run(s) of %s%n", runs, String.join(" ", command));
+            for (int r = 0; r < runs; r++) {
+                int port = freePort();
+                List<String> launch = new ArrayList<>(command);
+                launch.addAll(List.of(
+                        "--server.port=" + port,
+                        "--apifootball.api.url=" + stub.baseUrl(),
+                        "--apifootball.api.key=startup-test",
+                        "--app.snapshot.enabled=false"));
+                HttpRequest probe = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + PROBE)).GET().build();
+
+                long start = System.nanoTime();
+                Process process = new ProcessBuilder(launch).redirectErrorStream(true).redirectOutput(log).start();
+                try {
+                    millis[r] = awaitFirstResponse(client, probe, process, start, timeout, poll);
+                } finally {
+                    process.destroy();
+                    if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                        process.destroyForcibly().waitFor();
+                    }
+                }
+                System.out.printf("run %d: first request answered after %d ms%n", r + 1, millis[r]);
+            }
+        }
+        report(millis);
+    }
+
+    private static long awaitFirstResponse(HttpClient client, HttpRequest probe, Process process, long start,
+                                           Duration timeout, Duration poll) throws Exception {
+        while (System.nanoTime() - start < timeout.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue()
+                        + " before answering; see target/startup-run.log");
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(poll.toMillis());
+        }
+        throw new IllegalStateException("No answer within " + timeout + "; see target/startup-run.log");
+    }
+
+    private void report(long[] millis) throws IOException {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options);
+        result.put("command", command);
+        result.put("runs_ms", millis);
+        result.put("median_ms", sorted[(sorted.length - 1) / 2]);
+        result.put("min_ms", sorted[0]);
+        result.put("max_ms", sorted[sorted.length - 1]);
+        System.out.printf("%nFirst request: median %d ms, min %d ms, max %d ms%n",
+                result.get("median_ms"), sorted[0], sorted[sorted.length - 1]);
+
+        Path out = Path.of(option("out", "target/startup-result.json"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), result);
+        System.out.println("Results written to " + out);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.footballapi.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the APIFootball upstream, serving the JSON fixtures under {@code fixtures/}
+ * on the test classpath. Requests are routed by the {@code action} query parameter exactly like the
+ * real API; unknown ids get APIFootball's error object. With {@link #quota(int)} it enforces a
+ * per-second request quota the way a rate-limited API key would, answering 429 with Retry-After.
+ * {@link #latency(Duration, Duration)} and {@link #errorRate(double)} make it answer like a slow or
+ * flaky upstream; their random draws come from {@link #seed(long)}, so a run can be repeated.
+ */
+public class StubApiFootballServer implements AutoCloseable {
+
+    private static final byte[] NOT_FOUND = "{\"error\":404,\"message\":\"No data found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] QUOTA_EXCEEDED = "{\"error\":429,\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SERVER_ERROR = "{\"error\":500,\"message\":\"Internal error\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, byte[]> fixtures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> callsByAction = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int quotaPerSecond;
+    private volatile long latencyNanos;
+    private volatile long jitterNanos;
+    private volatile double errorRate;
+    private Random random = new Random(0);
+    private long quotaWindow;
+    private int quotaUsed;
+
+    private StubApiFootballServer() throws IOException {
+        // Without TCP_NODELAY small responses hit the delayed-ACK/Nagle stall (~40 ms per request).
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public static StubApiFootballServer start() throws IOException {
+        StubApiFootballServer stub = new StubApiFootballServer();
+        stub.server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Allows at most {@code requestsPerSecond} requests per wall-clock second; 0 turns the quota off.
+     */
+    public StubApiFootballServer quota(int requestsPerSecond) {
+        this.quotaPerSecond = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Delays every response by {@code latency} plus a uniformly drawn share of {@code jitter}.
+     */
+    public StubApiFootballServer latency(Duration latency, Duration jitter) {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        return this;
+    }
+
+    /**
+     * Answers this fraction of the requests (0 to 1) with a 500 instead of the fixture.
+     */
+    public StubApiFootballServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Seeds the draws for jitter and injected errors.
+     */
+    public synchronized StubApiFootballServer seed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    /**
+     * Requests answered with 500 by {@link #errorRate(double)}.
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * Requests answered with 429 because they exceeded the quota.
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public long calls(String action) {
+        AtomicLong calls = callsByAction.get(action);
+        return calls != null ? calls.get() : 0;
+    }
+
+    /**
+     * Raw bytes of a fixture file, e.g. {@code get_standings_152.json}.
+     */
+    public static byte[] fixture(String name) {
+        try (InputStream in = StubApiFootballServer.class.getClassLoader().getResourceAsStream("fixtures/" + name)) {
+            return in != null ? in.readAllBytes() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String action = query.getOrDefault("action", "");
+        callsByAction.computeIfAbsent(action, key -> new AtomicLong()).incrementAndGet();
+        if (!withinQuota()) {
+            rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 429, QUOTA_EXCEEDED);
+            return;
+        }
+        double draw = delay();
+        if (draw < errorRate) {
+            failed.incrementAndGet();
+            respond(exchange, 500, SERVER_ERROR);
+            return;
+        }
+
+        String fixtureName = switch (action) {
+            case "get_countries" -> "get_countries.json";
+            case "get_leagues" -> query.containsKey("country_id")
+                    ? "get_leagues_" + query.get("country_id") + ".json" : "get_leagues.json";
+            case "get_standings" -> "get_standings_" + query.get("league_id") + ".json";
+            default -> null;
+        };
+        byte[] body = fixtureName != null ? fixtures.computeIfAbsent(fixtureName, this::loadOrNotFound) : NOT_FOUND;
+        respond(exchange, 200, body);
+    }
+
+    /**
+     * Sleeps for the configured latency and returns the draw that decides whether to inject an error.
+     */
+    private double delay() {
+        long jitter;
+        double draw;
+        synchronized (this) {
+            jitter = jitterNanos > 0 ? (long) (random.nextDouble() * jitterNanos) : 0;
+            draw = random.nextDouble();
+        }
+        long nanos = latencyNanos + jitter;
+        if (nanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(nanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return draw;
+    }
+
+    private synchronized boolean withinQuota() {
+        if (quotaPerSecond <= 0) {
+            return true;
+        }
+        long window = System.currentTimeMillis() / 1000;
+        if (window != quotaWindow) {
+            quotaWindow = window;
+            quotaUsed = 0;
+        }
+        return ++quotaUsed <= quotaPerSecond;
+    }
+
+    private byte[] loadOrNotFound(String name) {
+        byte[] body = fixture(name);
+        return body != null ? body : NOT_FOUND;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
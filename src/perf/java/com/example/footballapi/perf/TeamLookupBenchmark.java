@@ -0,0 +1,82 @@
+package com.example.footballapi.perf;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.service.ApiFootballJsonDecoder;
+import com.example.footballapi.service.FootballLookupIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding one team inside a cached league: the lookup index against the linear
+ * {@code equalsIgnoreCase} scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamLookupBenchmark {
+
+    private static final String LEAGUE_ID = "152";
+
+    // First and last row of the table
+    @Param({"Manchester City", "burnley"})
+    public String teamName;
+
+    private List<TeamStandingDTO> rows;
+    private StandingsTable table;
+    private FootballLookupIndex lookupIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        byte[] fixture = StubApiFootballServer.fixture("get_standings_152.json");
+        rows = Arrays.asList(objectMapper.readValue(fixture, TeamStandingDTO[].class));
+        table = new ApiFootballJsonDecoder(objectMapper).readStandings(new ByteArrayInputStream(fixture));
+        // The index keeps a table's section only while the standings cache holds the table
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE).put(LEAGUE_ID, table);
+        lookupIndex = new FootballLookupIndex(cacheManager);
+        lookupIndex.findTeamRow(LEAGUE_ID, table, teamName);
+    }
+
+    @Benchmark
+    public Optional<Integer> indexRow() {
+        return lookupIndex.findTeamRow(LEAGUE_ID, table, teamName);
+    }
+
+    @Benchmark
+    public Optional<TeamStandingDTO> indexToDto() {
+        return lookupIndex.findTeamStanding(LEAGUE_ID, table, teamName);
+    }
+
+    @Benchmark
+    public Optional<TeamStandingDTO> linearScan() {
+        return rows.stream()
+                .filter(standing -> teamName.equalsIgnoreCase(standing.getTeamName()))
+                .findFirst();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.footballapi.perf;
+
+import com.example.footballapi.FootballapiApplication;
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.dto.TeamStandingDTO;
+import com.example.footballapi.service.FootballApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link FootballApiService#getTeamStanding} inside a real application context, talking to
+ * {@link StubApiFootballServer} over HTTP. {@code warm} is the fully cached path; {@code standingsMiss}
+ * evicts the league's standings before every call, so it includes one upstream round trip, decoding
+ * and table construction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamStandingBenchmark {
+
+    private StubApiFootballServer stub;
+    private ConfigurableApplicationContext context;
+    private FootballApiService service;
+    private Cache standingsCache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = StubApiFootballServer.start();
+        context = new SpringApplicationBuilder(FootballapiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties
+                .run("--apifootball.api.url=" + stub.baseUrl(),
+                        "--app.prefetch.enabled=false",
+                        "--app.snapshot.enabled=false",
+                        // Measures the upstream path itself; UpstreamQuotaBenchmark covers the limiter
+                        "--app.upstream.rate-limit.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        service = context.getBean(FootballApiService.class);
+        standingsCache = context.getBean(CacheManager.class).getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE);
+        service.getTeamStanding("England", "Premier League", "Liverpool");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public TeamStandingDTO warm() {
+        return service.getTeamStanding("England", "Premier League", "Liverpool");
+    }
+
+    @Benchmark
+    public TeamStandingDTO standingsMiss() {
+        standingsCache.evict("152");
+        return service.getTeamStanding("England", "Premier League", "Liverpool");
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.footballapi.perf;
+
+import com.example.footballapi.FootballapiApplication;
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.UpstreamRateLimiter;
+import com.example.footballapi.service.FootballApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User-facing standings misses (about {@value #INTERACTIVE_PER_SECOND} per second) competing with a background
+ * refresh storm for an upstream that enforces a quota of {@value #QUOTA} requests per second
+ * ({@link StubApiFootballServer#quota(int)}).
+ *
+ * With {@code rateLimit=true} the {@link UpstreamRateLimiter} keeps the combined rate under the quota and
+ * {@code interactive} calls go first, with the refreshes taking what is left; with {@code false} both hammer
+ * the upstream and fail on 429s. Times include the pause between interactive calls and count failed calls
+ * too; failures and upstream rejections are printed at the end of the trial.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UpstreamQuotaBenchmark {
+
+    private static final int QUOTA = 10;
+    private static final int INTERACTIVE_PER_SECOND = 4;
+    // One league per background thread; shared keys would be coalesced into a single upstream call.
+    private static final String[] BACKGROUND_LEAGUES = {"153", "168", "164"};
+
+    @Param({"true", "false"})
+    public boolean rateLimit;
+
+    private StubApiFootballServer stub;
+    private ConfigurableApplicationContext context;
+    private FootballApiService service;
+    private UpstreamRateLimiter rateLimiter;
+    private Cache standingsCache;
+    private final AtomicLong interactiveFailures = new AtomicLong();
+    private final AtomicLong backgroundFailures = new AtomicLong();
+    private final AtomicInteger backgroundThreads = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class BackgroundLeague {
+        String leagueId;
+
+        @Setup(Level.Trial)
+        public void setUp(UpstreamQuotaBenchmark benchmark) {
+            leagueId = BACKGROUND_LEAGUES[benchmark.backgroundThreads.getAndIncrement() % BACKGROUND_LEAGUES.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = StubApiFootballServer.start().quota(QUOTA);
+        context = new SpringApplicationBuilder(FootballapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--apifootball.api.url=" + stub.baseUrl(),
+                        "--app.prefetch.enabled=false",
+                        "--app.snapshot.enabled=false",
+                        "--app.upstream.rate-limit.enabled=" + rateLimit,
+                        "--app.upstream.rate-limit.requests-per-second=" + (QUOTA - 2),
+                        "--app.upstream.rate-limit.burst=" + (QUOTA - 2),
+                        "--app.upstream.rate-limit.background-max-wait=PT5S",
+                        "--app.upstream.rate-limit.throttled-pause=PT1S",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=ERROR");
+        service = context.getBean(FootballApiService.class);
+        rateLimiter = context.getBean(UpstreamRateLimiter.class);
+        standingsCache = context.getBean(CacheManager.class).getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE);
+        service.getTeamStanding("England", "Premier League", "Liverpool");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nrateLimit=%s: failed interactive=%d, failed background=%d, upstream 429s=%d%n",
+                rateLimit, interactiveFailures.get(), backgroundFailures.get(), stub.rejected());
+        context.close();
+        stub.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean interactive() throws InterruptedException {
+        Thread.sleep(1000 / INTERACTIVE_PER_SECOND);
+        try {
+            standingsCache.evict("152");
+            service.getTeamStanding("England", "Premier League", "Liverpool");
+            return true;
+        } catch (RuntimeException e) {
+            interactiveFailures.incrementAndGet();
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public boolean background(BackgroundLeague league) {
+        try {
+            rateLimiter.background(() -> service.refreshStandingsTable(league.leagueId));
+            return true;
+        } catch (RuntimeException e) {
+            backgroundFailures.incrementAndGet();
+            return false;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.footballapi;
 
+import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No API key and no snapshot: the context starts without calling APIFootball or touching the disk
+@SpringBootTest(properties = {"apifootball.api.key=", "app.snapshot.enabled=false"})
 class FootballapiApplicationTests {
 
-	// @Test
-	// void contextLoads() {
-	// }
+	@Test
+	void contextLoads() {
+	}
 
 }
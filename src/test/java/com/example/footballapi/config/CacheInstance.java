@@ -0,0 +1,68 @@
+package com.example.footballapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * One service instance's view of a refresh-ahead cache, wired as {@link CacheConfig} does: its own
+ * {@link SharedCacheTier} on an optional shared store, an {@link UpstreamCacheLoader} and the Spring cache.
+ * Records the value each {@link CacheEntryUpdatedEvent} announced, as read back from the cache, and the key
+ * of each {@link CacheEntryRemovedEvent}.
+ */
+public final class CacheInstance implements AutoCloseable {
+
+    public final CacheConfig.RefreshAheadCaffeineCache cache;
+    final SharedCacheTier sharedTier;
+    final List<Object> announced = new CopyOnWriteArrayList<>();
+    final List<Object> removed = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+
+    public CacheInstance(String cacheName, SharedCacheStore store, Duration ttl, Duration maxAge, Duration refreshLease,
+                         Function<Object, ?> fetch) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (store != null) {
+            beans.addBean("sharedCacheStore", store);
+        }
+        this.sharedTier = new SharedCacheTier(beans.getBeanProvider(SharedCacheStore.class), meterRegistry, refreshLease);
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(meterRegistry, false, 5, 20, 0.5,
+                Duration.ofSeconds(2), Duration.ofMinutes(1), Duration.ofMinutes(1));
+        UpstreamCacheLoader loader = new UpstreamCacheLoader(cacheName, fetch, rateLimiter, sharedTier);
+        LoadingCache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .refreshAfterWrite(ttl)
+                .expireAfter(CacheConfig.expireAfterWrite(maxAge))
+                .executor(refreshExecutor)
+                .build(loader);
+        this.cache = new CacheConfig.RefreshAheadCaffeineCache(cacheName, nativeCache, false,
+                event -> {
+                    if (event instanceof CacheEntryUpdatedEvent updated) {
+                        announced.add(nativeCache.getIfPresent(updated.key()));
+                    } else if (event instanceof CacheEntryRemovedEvent removal) {
+                        removed.add(String.valueOf(removal.key()));
+                    }
+                },
+                sharedTier, maxAge, maxAge);
+        loader.attach(cache);
+    }
+
+    @SuppressWarnings("unchecked")
+    LoadingCache<Object, Object> nativeCache() {
+        return (LoadingCache<Object, Object>) cache.getNativeCache();
+    }
+
+    @Override
+    public void close() throws Exception {
+        refreshExecutor.shutdownNow();
+        sharedTier.close();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.dto.LeagueDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two service instances sharing an {@link InProcessSharedCacheStore}, as separate deployments share an external store.
+ */
+class SharedCacheTierTest {
+
+    private static final String CACHE = CacheConfig.LEAGUES_CACHE;
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+    private static final Duration REFRESH_LEASE = Duration.ofSeconds(30);
+
+    private final InProcessSharedCacheStore store = new InProcessSharedCacheStore();
+    private final AtomicInteger fetchesA = new AtomicInteger();
+    private final AtomicInteger fetchesB = new AtomicInteger();
+    private CacheInstance a;
+    private CacheInstance b;
+
+    @AfterEach
+    void close() throws Exception {
+        a.close();
+        b.close();
+    }
+
+    @Test
+    void refreshLeaseHeldElsewhereFailsTheRefreshAndKeepsTheAge() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        a = instance(key -> {
+            fetchesA.incrementAndGet();
+            fetchStarted.countDown();
+            await(releaseFetch);
+            return leagues("refreshed");
+        });
+        b = instance(key -> {
+            fetchesB.incrementAndGet();
+            return leagues("refreshed by b");
+        });
+        a.cache.putIfAbsent("44", leagues("old"), minutesAgo(6));
+
+        // A reads the key past its TTL and takes the lease for the refresh, which is still running...
+        assertThat(a.cache.get("44").get()).isEqualTo(leagues("old"));
+        assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // ...when B takes the value from L2, with its age, and fails its own refresh.
+        assertThat(b.cache.get("44").get()).isEqualTo(leagues("old"));
+        CompletableFuture<Object> refreshB = b.nativeCache().refresh("44");
+        assertThat(refreshB).failsWithin(Duration.ofSeconds(5));
+        assertThat(b.cache.get("44").get()).isEqualTo(leagues("old"));
+        assertThat(b.cache.ageOf("44")).hasValueSatisfying(age -> assertThat(age).isGreaterThan(TTL));
+        assertThat(fetchesB).hasValue(0);
+
+        // A's result is written through and replaces B's copy.
+        releaseFetch.countDown();
+        awaitValue(b, "44", leagues("refreshed"));
+        assertThat(b.cache.ageOf("44")).hasValueSatisfying(age -> assertThat(age).isLessThan(Duration.ofSeconds(5)));
+        assertThat(b.announced).contains(leagues("refreshed"));
+        assertThat(fetchesA).hasValue(1);
+        assertThat(fetchesB).hasValue(0);
+    }
+
+    @Test
+    void remoteWritesAndEvictionsReachTheOtherInstance() {
+        a = instance(key -> leagues("fetched"));
+        b = instance(key -> leagues("fetched"));
+        a.cache.put("44", leagues("v1"));
+        a.cache.put("3", leagues("france"));
+        assertThat(b.cache.get("44").get()).isEqualTo(leagues("v1"));
+        assertThat(b.cache.get("3").get()).isEqualTo(leagues("france"));
+
+        a.cache.put("44", leagues("v2"));
+        assertThat(b.nativeCache().getIfPresent("44")).isEqualTo(leagues("v2"));
+        assertThat(b.announced).endsWith(leagues("v2"));
+
+        a.cache.evict("44");
+        assertThat(a.removed).containsExactly("44");
+        assertThat(b.removed).containsExactly("44");
+        assertThat(b.nativeCache().getIfPresent("44")).isNull();
+        assertThat(b.cache.get("44")).isNull();
+        assertThat(b.nativeCache().getIfPresent("3")).isEqualTo(leagues("france"));
+
+        a.cache.clear();
+        assertThat(b.removed).containsExactly("44", "null");
+        assertThat(b.nativeCache().asMap()).isEmpty();
+        assertThat(b.cache.get("3")).isNull();
+    }
+
+    @Test
+    void sharedValuesKeepTheirAgeAndAreRefusedPastMaxStaleness() {
+        a = instance(key -> leagues("fetched"));
+        b = instance(key -> {
+            fetchesB.incrementAndGet();
+            return leagues("fetched by b");
+        });
+
+        // Within the TTL: served with its age
+        store.put(CACHE, "44", CacheValueCodec.encode(CACHE, leagues("aged")), minutesAgo(3), MAX_AGE);
+        assertThat(b.cache.get("44").get()).isEqualTo(leagues("aged"));
+        assertThat(b.cache.ageOf("44")).hasValueSatisfying(age -> assertThat(age).isGreaterThan(Duration.ofMinutes(2)));
+        assertThat(fetchesB).hasValue(0);
+
+        // Past the TTL but within max-staleness: served, then reloaded
+        store.put(CACHE, "3", CacheValueCodec.encode(CACHE, leagues("stale")), minutesAgo(7), MAX_AGE);
+        assertThat(b.cache.get("3").get()).isEqualTo(leagues("stale"));
+        awaitValue(b, "3", leagues("fetched by b"));
+        assertThat(fetchesB).hasValue(1);
+
+        // Past max-staleness: not taken at all, so the miss goes to the upstream
+        store.put(CACHE, "6", CacheValueCodec.encode(CACHE, leagues("expired")), minutesAgo(11), null);
+        assertThat(b.cache.get("6")).isNull();
+        assertThat(b.nativeCache().getIfPresent("6")).isNull();
+    }
+
+    @Test
+    void putIfAbsentReturnsTheSharedValueItInstalls() {
+        a = instance(key -> leagues("fetched"));
+        b = instance(key -> leagues("fetched"));
+        a.cache.put("44", leagues("from a"));
+
+        Cache.ValueWrapper existing = b.cache.putIfAbsent("44", leagues("from b"));
+
+        assertThat(existing).isNotNull();
+        assertThat(existing.get()).isEqualTo(leagues("from a"));
+        assertThat(b.nativeCache().getIfPresent("44")).isEqualTo(leagues("from a"));
+        assertThat(a.cache.get("44").get()).isEqualTo(leagues("from a"));
+    }
+
+    @Test
+    void snapshotValueWrittenThroughKeepsItsAgeInL2() {
+        a = instance(key -> leagues("fetched"));
+        b = instance(key -> leagues("fetched"));
+
+        a.cache.putIfAbsent("44", leagues("restored"), minutesAgo(4));
+
+        assertThat(store.get(CACHE, "44").writtenAtMillis()).isLessThanOrEqualTo(minutesAgo(4) + 1000);
+        assertThat(b.cache.get("44").get()).isEqualTo(leagues("restored"));
+        assertThat(b.cache.ageOf("44")).hasValueSatisfying(age -> assertThat(age).isGreaterThan(Duration.ofMinutes(3)));
+
+        // A remote write replaces a local copy with the age the value has in L2
+        b.nativeCache().put("3", leagues("local"));
+        a.cache.putIfAbsent("3", leagues("restored"), minutesAgo(2));
+        assertThat(b.nativeCache().getIfPresent("3")).isEqualTo(leagues("restored"));
+        assertThat(b.cache.ageOf("3")).hasValueSatisfying(age -> assertThat(age).isGreaterThan(Duration.ofMinutes(1)));
+    }
+
+    private CacheInstance instance(Function<Object, ?> fetch) {
+        return new CacheInstance(CACHE, store, TTL, MAX_AGE, REFRESH_LEASE, fetch);
+    }
+
+    private static List<LeagueDTO> leagues(String name) {
+        LeagueDTO league = new LeagueDTO();
+        league.setLeagueId("152");
+        league.setLeagueName(name);
+        league.setCountryId("44");
+        league.setCountryName("England");
+        return List.of(league);
+    }
+
+    private static long minutesAgo(int minutes) {
+        return System.currentTimeMillis() - Duration.ofMinutes(minutes).toMillis();
+    }
+
+    private static void awaitValue(CacheInstance instance, String key, Object expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.equals(instance.nativeCache().getIfPresent(key)) && System.nanoTime() < deadline) {
+            await(new CountDownLatch(1), 10);
+        }
+        assertThat(instance.nativeCache().getIfPresent(key)).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        await(latch, TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
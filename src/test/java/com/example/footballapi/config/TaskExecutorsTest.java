@@ -0,0 +1,67 @@
+package com.example.footballapi.config;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskExecutorsTest {
+
+    @ParameterizedTest(name = "virtualThreads={0}")
+    @ValueSource(booleans = {true, false})
+    void rejectsTasksBeyondConcurrencyPlusQueueCapacity(boolean virtualThreads) throws Exception {
+        ExecutorService executor = TaskExecutors.bounded("test-", 2, 3, virtualThreads);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+        try {
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> {
+                    await(gate);
+                    done.countDown();
+                });
+            }
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            gate.countDown();
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+            CountDownLatch accepted = new CountDownLatch(1);
+            awaitCapacity(executor, accepted);
+            assertThat(accepted.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            gate.countDown();
+            executor.shutdown();
+        }
+    }
+
+    // Capacity is released just after the task body, so the first submission may still race it.
+    private static void awaitCapacity(ExecutorService executor, CountDownLatch accepted) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                executor.execute(accepted::countDown);
+                return;
+            } catch (RejectedExecutionException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void callsBeyondTheCapAreRejectedAfterTheirWait() {
+        UpstreamBulkhead bulkhead = new UpstreamBulkhead(meterRegistry, true, 2, Duration.ofMillis(100));
+        bulkhead.acquire();
+        bulkhead.tryAcquire();
+        assertThat(meterRegistry.get("apifootball.bulkhead.active").gauge().value()).isEqualTo(2);
+
+        long askedAt = System.nanoTime();
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOfSatisfying(UpstreamUnavailableException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+        assertThat(Duration.ofNanos(System.nanoTime() - askedAt)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThatThrownBy(bulkhead::tryAcquire).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(meterRegistry.get("apifootball.bulkhead.rejected").counter().count()).isEqualTo(2);
+
+        bulkhead.release();
+        bulkhead.tryAcquire();
+        bulkhead.release();
+        bulkhead.release();
+        assertThat(meterRegistry.get("apifootball.bulkhead.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledBulkheadAdmitsEverything() {
+        UpstreamBulkhead bulkhead = new UpstreamBulkhead(meterRegistry, false, 1, Duration.ZERO);
+        for (int i = 0; i < 10; i++) {
+            bulkhead.acquire();
+            bulkhead.tryAcquire();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.footballapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamCacheLoaderTest {
+
+    private CacheInstance instance;
+
+    @AfterEach
+    void close() throws Exception {
+        instance.close();
+    }
+
+    @Test
+    void refreshedValueIsAnnouncedOnceReadersCanSeeIt() {
+        AtomicInteger fetches = new AtomicInteger();
+        instance = newInstance(key -> List.of("v" + fetches.incrementAndGet()));
+        instance.cache.put("44", List.of("v0"));
+        instance.announced.clear();
+
+        Object refreshed = instance.nativeCache().refresh("44").join();
+
+        assertThat(refreshed).isEqualTo(List.of("v1"));
+        assertThat(instance.cache.get("44").get()).isEqualTo(List.of("v1"));
+        assertThat(instance.announced).containsExactly(List.of("v1"));
+    }
+
+    @Test
+    void emptyRefreshKeepsThePreviousValueAndAnnouncesNothing() {
+        instance = newInstance(key -> List.of());
+        instance.cache.put("44", List.of("v0"));
+        instance.announced.clear();
+
+        instance.nativeCache().refresh("44").exceptionally(e -> null).join();
+
+        assertThat(instance.cache.get("44").get()).isEqualTo(List.of("v0"));
+        assertThat(instance.announced).isEmpty();
+    }
+
+    @Test
+    void refreshedValueIsAgedFromWhenItWasFetched() {
+        instance = newInstance(key -> List.of("v1"));
+        instance.cache.putIfAbsent("44", List.of("v0"), System.currentTimeMillis() - Duration.ofMinutes(5).toMillis());
+        assertThat(instance.cache.ageOf("44")).hasValueSatisfying(age -> assertThat(age).isGreaterThan(Duration.ofMinutes(4)));
+
+        instance.nativeCache().refresh("44").join();
+
+        assertThat(instance.cache.ageOf("44")).hasValueSatisfying(age -> assertThat(age).isLessThan(Duration.ofSeconds(5)));
+    }
+
+    private static CacheInstance newInstance(Function<Object, ?> fetch) {
+        return new CacheInstance(CacheConfig.LEAGUES_CACHE, null, Duration.ofMinutes(1), Duration.ofHours(1),
+                Duration.ofSeconds(30), fetch);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.config.UpstreamCircuitBreaker.Permit;
+import com.example.footballapi.config.UpstreamCircuitBreaker.State;
+import com.example.footballapi.exception.GlobalExceptionHandler;
+import com.example.footballapi.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class UpstreamCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+    private static final Duration SLOW_CALL_DURATION = Duration.ofMillis(50);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // 50 % failures or 80 % slow calls of the last 4 calls open it; 2 trials close it again
+    private final UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(meterRegistry, true, 50, 80,
+            SLOW_CALL_DURATION, 4, 4, OPEN_DURATION, 2);
+
+    @Test
+    void failuresOpenTheBreakerAndSuccessfulTrialsCloseIt() throws Exception {
+        breaker.acquire().onError();
+        breaker.acquire().onResponse(200);
+        breaker.acquire().onResponse(429); // Throttled, but the upstream answered
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED); // Fewer than the minimum calls yet
+        breaker.acquire().onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED); // 1 of 4 failed
+
+        breaker.acquire().onResponse(200); // The first failure leaves the window
+        breaker.acquire().onResponse(503);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED); // Still 1 of 4
+        breaker.acquire().onError();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN); // 2 of 4
+
+        UpstreamUnavailableException rejected = catchThrowableOfType(breaker::acquire, UpstreamUnavailableException.class);
+        assertThat(rejected.getRetryAfter()).isPositive().isLessThanOrEqualTo(OPEN_DURATION);
+        assertThatThrownBy(breaker::checkPermitted).isInstanceOf(UpstreamUnavailableException.class);
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        breaker.checkPermitted(); // Does not take a trial slot
+        Permit first = breaker.acquire();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        Permit second = breaker.acquire();
+        // Both trial slots are taken; the trials should be over within the slow-call duration
+        rejected = catchThrowableOfType(breaker::acquire, UpstreamUnavailableException.class);
+        assertThat(rejected.getRetryAfter()).isEqualTo(SLOW_CALL_DURATION);
+
+        first.onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        second.onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        assertThat(count("success")).isEqualTo(6);
+        assertThat(count("failure")).isEqualTo(3);
+        assertThat(count("not_permitted")).isEqualTo(3);
+    }
+
+    @Test
+    void slowCallsOpenTheBreaker() throws Exception {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(breaker.acquire());
+        }
+        Thread.sleep(SLOW_CALL_DURATION.toMillis() + 10);
+        permits.forEach(permit -> permit.onResponse(200));
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(count("slow")).isEqualTo(4);
+    }
+
+    @Test
+    void aSlowBodyCountsAsASlowCallAndKeepsItsBulkheadSlot() throws Exception {
+        UpstreamBulkhead bulkhead = new UpstreamBulkhead(meterRegistry, true, 4, Duration.ZERO);
+        UpstreamCircuitBreakerInterceptor interceptor = new UpstreamCircuitBreakerInterceptor(breaker, bulkhead);
+        for (int i = 0; i < 4; i++) {
+            // The headers arrive at once, the body only after the slow-call duration
+            ClientHttpResponse response = interceptor.intercept(new MockClientHttpRequest(), new byte[0],
+                    (request, body) -> new MockClientHttpResponse(slowBody(), HttpStatus.OK));
+            assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+            assertThat(meterRegistry.get("apifootball.bulkhead.active").gauge().value()).isEqualTo(1);
+
+            response.getBody().readAllBytes();
+            response.close();
+            response.close(); // Only the first close completes the call
+        }
+
+        assertThat(meterRegistry.get("apifootball.bulkhead.active").gauge().value()).isZero();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(count("slow")).isEqualTo(4);
+    }
+
+    @Test
+    void aFailedOrSlowTrialOpensTheBreakerAgain() throws Exception {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        breaker.acquire().onError();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        Permit trial = breaker.acquire();
+        Thread.sleep(SLOW_CALL_DURATION.toMillis() + 10);
+        trial.onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void outcomesOfCallsAdmittedBeforeATransitionAreIgnored() throws Exception {
+        Permit admittedWhileClosed = breaker.acquire();
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        Permit trial = breaker.acquire();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        admittedWhileClosed.onError(); // Would reopen the breaker if it counted as a trial
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        trial.onResponse(200);
+        trial.onError(); // Only the first completion counts
+        breaker.acquire().onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void aCancelledTrialGivesItsSlotBack() throws Exception {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        Permit cancelled = breaker.acquire();
+        Permit trial = breaker.acquire();
+        assertThatThrownBy(breaker::acquire).isInstanceOf(UpstreamUnavailableException.class);
+
+        cancelled.onCancel();
+        cancelled.onResponse(200); // Ignored once cancelled
+        Permit replacement = breaker.acquire();
+        trial.onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        replacement.onResponse(200);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void rejectionsAreAnsweredWithRetryAfterInWholeSeconds() {
+        open();
+        UpstreamUnavailableException rejected = catchThrowableOfType(breaker::acquire, UpstreamUnavailableException.class);
+
+        ResponseEntity<Object> response = new GlobalExceptionHandler().handleUpstreamUnavailableException(rejected);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        response = new GlobalExceptionHandler().handleUpstreamUnavailableException(
+                new UpstreamUnavailableException("open", Duration.ofMillis(2001)));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    void disabledBreakerAdmitsEverything() {
+        UpstreamCircuitBreaker disabled = new UpstreamCircuitBreaker(meterRegistry, false, 50, 80,
+                SLOW_CALL_DURATION, 4, 4, OPEN_DURATION, 2);
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire().onError();
+        }
+        disabled.checkPermitted();
+        assertThat(disabled.getState()).isEqualTo(State.CLOSED);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.acquire().onError();
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    private static InputStream slowBody() {
+        return new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                try {
+                    Thread.sleep(SLOW_CALL_DURATION.toMillis() + 10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.read(b, off, len);
+            }
+        };
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("apifootball.circuit.calls").tag("outcome", outcome).counter().count();
+    }
+}
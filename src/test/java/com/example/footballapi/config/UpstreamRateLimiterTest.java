@@ -0,0 +1,100 @@
+package com.example.footballapi.config;
+
+import com.example.footballapi.config.UpstreamRateLimiter.Priority;
+import com.example.footballapi.config.UpstreamRateLimiter.Reservation;
+import com.example.footballapi.exception.ExternalApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void backgroundCallsLeaveTheReserveToInteractiveCalls() {
+        // A burst of 4 that practically never refills, half of it reserved for interactive calls
+        UpstreamRateLimiter rateLimiter = rateLimiter(0.001, 4, Duration.ofSeconds(2));
+
+        assertThat(rateLimiter.reserve(Priority.BACKGROUND, System.nanoTime())).isEqualTo(new Reservation(true, 0));
+        assertThat(rateLimiter.reserve(Priority.BACKGROUND, System.nanoTime())).isEqualTo(new Reservation(true, 0));
+        assertThatThrownBy(() -> rateLimiter.reserve(Priority.BACKGROUND, System.nanoTime()))
+                .isInstanceOf(ExternalApiException.class);
+
+        assertThat(rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime())).isEqualTo(new Reservation(true, 0));
+        assertThat(rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime())).isEqualTo(new Reservation(true, 0));
+        assertThatThrownBy(() -> rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime()))
+                .isInstanceOf(ExternalApiException.class);
+
+        assertThat(count("background", "granted")).isEqualTo(2);
+        assertThat(count("background", "rejected")).isEqualTo(1);
+        assertThat(count("interactive", "granted")).isEqualTo(2);
+        assertThat(count("interactive", "rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void interactiveCallsAreGrantedAheadOfTimeAndBackgroundCallsAskAgain() {
+        UpstreamRateLimiter rateLimiter = rateLimiter(10, 2, Duration.ofSeconds(2));
+        rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime());
+        rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime());
+
+        Reservation interactive = rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime());
+        assertThat(interactive.granted()).isTrue();
+        assertThat(Duration.ofNanos(interactive.waitNanos())).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+
+        // The interactive debt comes first: the background call is told to come back once it is paid off
+        Reservation background = rateLimiter.reserve(Priority.BACKGROUND, System.nanoTime());
+        assertThat(background.granted()).isFalse();
+        assertThat(Duration.ofNanos(background.waitNanos())).isGreaterThan(Duration.ofNanos(interactive.waitNanos()));
+    }
+
+    @Test
+    void upstreamThrottlingPausesThePermits() {
+        UpstreamRateLimiter rateLimiter = rateLimiter(100, 20, Duration.ofSeconds(30));
+        rateLimiter.throttled(UpstreamRateLimiter.retryAfter("10"));
+
+        Reservation reservation = rateLimiter.reserve(Priority.INTERACTIVE, System.nanoTime());
+        assertThat(reservation.granted()).isTrue();
+        assertThat(Duration.ofNanos(reservation.waitNanos())).isGreaterThan(Duration.ofSeconds(9));
+        assertThat(meterRegistry.get("apifootball.ratelimit.throttled").counter().count()).isEqualTo(1);
+
+        assertThat(UpstreamRateLimiter.retryAfter(" 5 ")).isEqualTo(Duration.ofSeconds(5));
+        assertThat(UpstreamRateLimiter.retryAfter("Wed, 21 Oct 2026 07:28:00 GMT")).isNull();
+        assertThat(UpstreamRateLimiter.retryAfter(null)).isNull();
+    }
+
+    @Test
+    void backgroundPriorityAppliesOnlyWithinTheCall() {
+        UpstreamRateLimiter rateLimiter = rateLimiter(1, 1, Duration.ofSeconds(2));
+
+        assertThat(rateLimiter.background(rateLimiter::currentPriority)).isEqualTo(Priority.BACKGROUND);
+        assertThat(rateLimiter.currentPriority()).isEqualTo(Priority.INTERACTIVE);
+        assertThatThrownBy(() -> rateLimiter.background(() -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(rateLimiter.currentPriority()).isEqualTo(Priority.INTERACTIVE);
+    }
+
+    @Test
+    void disabledLimiterGrantsEverything() {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(meterRegistry, false, 0.001, 1, 0.5,
+                Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1));
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.reserve(Priority.BACKGROUND, System.nanoTime()).granted()).isTrue();
+        }
+    }
+
+    private UpstreamRateLimiter rateLimiter(double requestsPerSecond, int burst, Duration maxWait) {
+        return new UpstreamRateLimiter(meterRegistry, true, requestsPerSecond, burst, 0.5, maxWait, maxWait,
+                Duration.ofMinutes(1));
+    }
+
+    private double count(String priority, String outcome) {
+        return meterRegistry.get("apifootball.ratelimit.permits").tag("priority", priority).tag("outcome", outcome)
+                .counter().count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.exception.ExternalApiException;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.service.ApiFootballJsonDecoder.IncrementalReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiFootballJsonDecoderTest {
+
+    private static final String STANDINGS = """
+            [{"country_name":"England","league_id":"152","league_name":"Premier League","team_id":"141",
+              "team_name":"Arsenal","overall_league_position":"1","overall_league_payed":"38",
+              "overall_league_W":"26","overall_league_D":"6","overall_league_L":"6","overall_league_GF":"88",
+              "overall_league_GA":"43","overall_league_PTS":"84","team_badge":"https://example.com/a.png",
+              "home_league_position":{"nested":["skipped",1]}},
+             {"country_name":"England","league_id":"152","league_name":"Premier League","team_id":"3429",
+              "team_name":"Manchester City","overall_league_position":"2","overall_league_payed":"",
+              "overall_league_W":" 25 ","overall_league_D":"x","overall_league_L":5,"overall_league_GF":"89",
+              "overall_league_GA":"31","overall_league_PTS":"82"}]
+            """;
+
+    private static final String LEAGUES = """
+            [{"country_id":"44","country_name":"England","league_id":"152","league_name":"Premier League",
+              "league_logo":"https://example.com/l.png"},
+             {"country_id":"3","country_name":"France","league_id":"168","league_name":"Ligue 1"},
+             {"country_id":"44","country_name":"England","league_id":"153","league_name":"Championship"}]
+            """;
+
+    private static final String COUNTRIES = """
+            [{"country_id":"44","country_name":"England","country_logo":"e.png"},
+             {"country_id":"6","country_name":"Germany"},{"country_id":"3","country_name":"France"}]
+            """;
+
+    private final ApiFootballJsonDecoder decoder = new ApiFootballJsonDecoder(new ObjectMapper());
+
+    @Test
+    void readsOnlyTheUsedFieldsAndFilteredRecords() throws IOException {
+        StandingsTable table = decoder.readStandings(stream(STANDINGS));
+        assertThat(table.getLeagueId()).isEqualTo("152");
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.teamName(0)).isEqualTo("Arsenal");
+        assertThat(table.points(0)).isEqualTo(84);
+        assertThat(table.played(1)).isEqualTo(StandingsTable.MISSING);
+        assertThat(table.won(1)).isEqualTo(25);
+        assertThat(table.drawn(1)).isEqualTo(StandingsTable.MISSING);
+        assertThat(table.lost(1)).isEqualTo(5);
+
+        List<LeagueDTO> leagues = decoder.readLeagues(stream(LEAGUES), league -> "44".equals(league.getCountryId()));
+        assertThat(leagues).extracting(LeagueDTO::getLeagueId).containsExactly("152", "153");
+
+        List<CountryDTO> countries = decoder.readCountries(stream(COUNTRIES),
+                country -> FootballApiService.isSupported(country.getCountryName()));
+        assertThat(countries).extracting(CountryDTO::getCountryName).containsExactly("England", "France");
+
+        String events = """
+                [{"match_id":"1","league_id":"152","match_live":"1","cards":[{"time":"12"}]},
+                 {"match_id":"2","league_id":"168"},{"match_id":"3","league_id":"152"},{"match_id":"4"}]
+                """;
+        assertThat(decoder.readEventLeagueIds(stream(events))).containsExactlyInAnyOrder("152", "168");
+    }
+
+    @ParameterizedTest(name = "chunk size {0}")
+    @ValueSource(ints = {1, 7, 4096})
+    void incrementalReadersDecodeLikeTheBlockingReaders(int chunkSize) throws IOException {
+        StandingsTable table = feed(decoder.standingsReader(), STANDINGS, chunkSize);
+        assertThat(table.toDtos()).isEqualTo(decoder.readStandings(stream(STANDINGS)).toDtos());
+
+        List<LeagueDTO> leagues = feed(decoder.leaguesReader(league -> "44".equals(league.getCountryId())),
+                LEAGUES, chunkSize);
+        assertThat(leagues).isEqualTo(decoder.readLeagues(stream(LEAGUES), league -> "44".equals(league.getCountryId())));
+
+        List<CountryDTO> countries = feed(decoder.countriesReader(country -> true), COUNTRIES, chunkSize);
+        assertThat(countries).extracting(CountryDTO::getCountryId).containsExactly("44", "6", "3");
+    }
+
+    @Test
+    void emptyBodyIsAnEmptyArray() throws IOException {
+        assertThat(decoder.readStandings(stream("")).isEmpty()).isTrue();
+        assertThat(feed(decoder.standingsReader(), "", 1).isEmpty()).isTrue();
+        assertThat(feed(decoder.leaguesReader(league -> true), "[]", 1)).isEmpty();
+    }
+
+    @Test
+    void upstreamErrorObjectIsReported() {
+        String error = "{\"error\":404,\"message\":\"No league found (please check your plan)!!\"}";
+        assertThatThrownBy(() -> decoder.readStandings(stream(error)))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessage("APIFootball returned an error: No league found (please check your plan)!!");
+        assertThatThrownBy(() -> feed(decoder.standingsReader(), error, 5))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessage("APIFootball returned an error: No league found (please check your plan)!!");
+        assertThatThrownBy(() -> feed(decoder.standingsReader(), "\"oops\"", 5))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("VALUE_STRING");
+    }
+
+    @Test
+    void truncatedBodyFails() {
+        String truncated = STANDINGS.substring(0, STANDINGS.indexOf("Manchester"));
+        assertThatThrownBy(() -> feed(decoder.standingsReader(), truncated, 16))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    private static <T> T feed(IncrementalReader<T> reader, String body, int chunkSize) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            reader.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+        }
+        return reader.finish();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheInstance;
+import com.example.footballapi.config.CacheValueCodec;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.model.StandingsTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheSnapshotStoreTest {
+
+    private static final String LEAGUES = CacheConfig.LEAGUES_CACHE;
+    private static final String STANDINGS = CacheConfig.STANDINGS_BY_LEAGUE_CACHE;
+    // Null flag and UTF length per metadata string: "England", "152", "Premier League"
+    private static final int TABLE_SIZE_OFFSET = 3 + 7 + 3 + 3 + 3 + 14;
+
+    @TempDir
+    Path dir;
+
+    private final List<CacheInstance> instances = new ArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        for (CacheInstance instance : instances) {
+            instance.close();
+        }
+    }
+
+    @Test
+    void aCorruptOrTruncatedSnapshotMeansAColdStart() throws Exception {
+        Path file = dir.resolve("cache-snapshot.bin");
+        List<CacheInstance> written = caches();
+        written.get(1).cache.put("44", leagues());
+        written.get(2).cache.put("152", table());
+        store(file, written).flush();
+        byte[] intact = Files.readAllBytes(file);
+
+        CacheSnapshotStore restored = store(file, caches());
+        restored.restore();
+        assertThat(restored.isRestored()).isTrue();
+
+        List<byte[]> corrupt = new ArrayList<>();
+        for (int offset : new int[] {0, 20, intact.length / 2, intact.length - 1}) {
+            byte[] flipped = intact.clone();
+            flipped[offset] ^= 0x5A;
+            corrupt.add(flipped);
+        }
+        corrupt.add(Arrays.copyOf(intact, intact.length - 1));
+        corrupt.add(Arrays.copyOf(intact, 5));
+        for (byte[] bytes : corrupt) {
+            Files.write(file, bytes);
+            List<CacheInstance> cold = caches();
+            CacheSnapshotStore store = store(file, cold);
+
+            store.restore();
+
+            assertThat(store.isRestored()).isFalse();
+            cold.forEach(instance -> assertThat(instance.cache.getNativeCache().asMap()).isEmpty());
+        }
+    }
+
+    @Test
+    void countsTheRemainingBytesCannotHoldAreRejectedBeforeAllocating() {
+        byte[] encodedTable = CacheValueCodec.encode(STANDINGS, table());
+        byte[] encodedLeagues = CacheValueCodec.encode(LEAGUES, leagues());
+        assertThat(((StandingsTable) CacheValueCodec.decode(STANDINGS, encodedTable)).teamName(0)).isEqualTo("Arsenal");
+
+        for (int count : new int[] {Integer.MAX_VALUE, 2, -1}) {
+            byte[] table = encodedTable.clone();
+            ByteBuffer.wrap(table).putInt(TABLE_SIZE_OFFSET, count);
+            assertThatThrownBy(() -> CacheValueCodec.decode(STANDINGS, table)).isInstanceOf(UncheckedIOException.class);
+
+            byte[] leagues = encodedLeagues.clone();
+            ByteBuffer.wrap(leagues).putInt(0, count);
+            assertThatThrownBy(() -> CacheValueCodec.decode(LEAGUES, leagues)).isInstanceOf(UncheckedIOException.class);
+        }
+    }
+
+    private List<CacheInstance> caches() {
+        List<CacheInstance> caches = new ArrayList<>();
+        for (String cacheName : List.of(CacheConfig.COUNTRIES_CACHE, LEAGUES, STANDINGS)) {
+            caches.add(new CacheInstance(cacheName, null, Duration.ofMinutes(5), Duration.ofMinutes(10),
+                    Duration.ofSeconds(30), key -> {
+                        throw new IllegalStateException("No upstream in this test");
+                    }));
+        }
+        instances.addAll(caches);
+        return caches;
+    }
+
+    private static CacheSnapshotStore store(Path file, List<CacheInstance> caches) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches.stream().map(instance -> instance.cache).toList());
+        cacheManager.initializeCaches();
+        CacheSnapshotStore store = new CacheSnapshotStore(cacheManager, file.toString());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        return store;
+    }
+
+    private static List<LeagueDTO> leagues() {
+        LeagueDTO league = new LeagueDTO();
+        league.setLeagueId("152");
+        league.setLeagueName("Premier League");
+        league.setCountryId("44");
+        league.setCountryName("England");
+        return List.of(league);
+    }
+
+    private static StandingsTable table() {
+        return StandingsTable.builder().metadata("England", "152", "Premier League")
+                .addRow("2611", "Arsenal", new int[] {1, 10, 8, 1, 1, 24, 6, 25})
+                .build();
+    }
+}
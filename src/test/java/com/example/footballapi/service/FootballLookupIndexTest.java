@@ -0,0 +1,77 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.dto.CountryDTO;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.model.StandingsTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FootballLookupIndexTest {
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final FootballLookupIndex index = new FootballLookupIndex(cacheManager);
+
+    @Test
+    void sectionsOfEvictedEntriesAreDropped() {
+        CountryDTO england = new CountryDTO();
+        england.setCountryId("44");
+        england.setCountryName("England");
+        List<CountryDTO> countries = List.of(england);
+        List<LeagueDTO> leagues = List.of(league("152", "Premier League"));
+        StandingsTable table = StandingsTable.builder().metadata("England", "152", "Premier League")
+                .addRow("141", "Arsenal", new int[StandingsTable.Builder.NUMERIC_CELLS]).build();
+        cacheManager.getCache(CacheConfig.COUNTRIES_CACHE).put(SimpleKey.EMPTY, countries);
+        cacheManager.getCache(CacheConfig.LEAGUES_CACHE).put("44", leagues);
+        cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE).put("152", table);
+        FootballLookupIndex.Section<String> countrySection = index.indexCountries(countries);
+        FootballLookupIndex.Section<String> leagueSection = index.indexLeagues("44", leagues);
+        FootballLookupIndex.Section<Integer> standingsSection = index.indexStandings("152", table);
+        assertThat(index.indexLeagues("44", leagues)).isSameAs(leagueSection);
+
+        index.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152"));
+        assertThat(index.indexStandings("152", table)).isNotSameAs(standingsSection);
+        assertThat(index.indexLeagues("44", leagues)).isSameAs(leagueSection);
+
+        index.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.LEAGUES_CACHE, null));
+        assertThat(index.indexLeagues("44", leagues)).isNotSameAs(leagueSection);
+
+        index.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.COUNTRIES_CACHE, null));
+        assertThat(index.indexCountries(countries)).isNotSameAs(countrySection);
+        assertThat(index.findCountryId(countries, " england ")).hasValue("44");
+    }
+
+    @Test
+    void sectionsAreOnlyKeptWhileTheCacheHoldsTheirSource() {
+        StandingsTable table = StandingsTable.builder().metadata("England", "152", "Premier League")
+                .addRow("141", "Arsenal", new int[StandingsTable.Builder.NUMERIC_CELLS]).build();
+
+        // Read just before the entry was evicted: the section answers this lookup but is not kept
+        FootballLookupIndex.Section<Integer> evicted = index.indexStandings("152", table);
+        assertThat(evicted.find("arsenal")).hasValue(0);
+        assertThat(index.indexStandings("152", table)).isNotSameAs(evicted);
+
+        cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE).put("152", table);
+        FootballLookupIndex.Section<Integer> cached = index.indexStandings("152", table);
+        assertThat(index.indexStandings("152", table)).isSameAs(cached);
+
+        List<LeagueDTO> leagues = List.of(league("152", "Premier League"));
+        FootballLookupIndex.Section<String> leagueSection = index.indexLeagues("44", leagues);
+        assertThat(index.indexLeagues("44", leagues)).isNotSameAs(leagueSection);
+    }
+
+    private static LeagueDTO league(String leagueId, String leagueName) {
+        LeagueDTO league = new LeagueDTO();
+        league.setLeagueId(leagueId);
+        league.setLeagueName(leagueName);
+        league.setCountryId("44");
+        return league;
+    }
+}
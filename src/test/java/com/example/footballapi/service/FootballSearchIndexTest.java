@@ -0,0 +1,91 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.config.CacheEntryUpdatedEvent;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.SearchResultDTO;
+import com.example.footballapi.model.StandingsTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FootballSearchIndexTest {
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final FootballSearchIndex index = newIndex(cacheManager);
+
+    @Test
+    void evictedEntriesLeaveTheIndex() {
+        cached(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152", table("152", "Premier League", "Arsenal", "Chelsea"));
+        cached(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "168", table("168", "Ligue 1", "Arles", "Lens"));
+        cached(CacheConfig.LEAGUES_CACHE, "44", List.of(league("152", "Premier League")));
+        assertThat(names("ar")).containsExactlyInAnyOrder("Arsenal", "Arles");
+
+        index.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152"));
+        assertThat(names("ar")).containsExactly("Arles");
+        assertThat(names("chelsea")).isEmpty();
+
+        index.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, null));
+        assertThat(names("ar")).isEmpty();
+        assertThat(names("premier")).containsExactly("Premier League");
+
+        index.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.LEAGUES_CACHE, "44"));
+        assertThat(names("premier")).isEmpty();
+    }
+
+    @Test
+    void entriesEvictedBeforeTheyAreIndexedStayOut() {
+        cached(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "168", table("168", "Ligue 1", "Arles", "Lens"));
+        // Announced, but evicted again before the segment was swapped in
+        index.onCacheEntryUpdated(new CacheEntryUpdatedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152",
+                table("152", "Premier League", "Arsenal", "Chelsea")));
+
+        assertThat(names("ar")).containsExactly("Arles");
+        assertThat(names("chelsea")).isEmpty();
+    }
+
+    /**
+     * Writes {@code value} to the cache and announces it, as the caches do.
+     */
+    private void cached(String cacheName, String key, Object value) {
+        cacheManager.getCache(cacheName).put(key, value);
+        index.onCacheEntryUpdated(new CacheEntryUpdatedEvent(cacheName, key, value));
+    }
+
+    private List<String> names(String query) {
+        return index.search(query, null, 10).stream().map(SearchResultDTO::getName).toList();
+    }
+
+    private static FootballSearchIndex newIndex(CacheManager cacheManager) {
+        FootballSearchIndex index = new FootballSearchIndex(List.of(), new SimpleMeterRegistry(), cacheManager);
+        ReflectionTestUtils.setField(index, "minSimilarity", 0.4);
+        ReflectionTestUtils.setField(index, "maxResults", 50);
+        return index;
+    }
+
+    private static StandingsTable table(String leagueId, String leagueName, String... teams) {
+        StandingsTable.Builder builder = StandingsTable.builder().metadata("England", leagueId, leagueName);
+        for (int i = 0; i < teams.length; i++) {
+            int[] cells = new int[StandingsTable.Builder.NUMERIC_CELLS];
+            cells[0] = i + 1;
+            builder.addRow(leagueId + i, teams[i], cells);
+        }
+        return builder.build();
+    }
+
+    private static LeagueDTO league(String leagueId, String leagueName) {
+        LeagueDTO league = new LeagueDTO();
+        league.setLeagueId(leagueId);
+        league.setLeagueName(leagueName);
+        league.setCountryId("44");
+        league.setCountryName("England");
+        return league;
+    }
+}
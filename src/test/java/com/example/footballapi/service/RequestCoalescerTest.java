@@ -0,0 +1,156 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.UpstreamRateLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadLocal<Priority> priority = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+    private final RequestCoalescer<String, Object> coalescer = new RequestCoalescer<>("test", meterRegistry, priority::get);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void close() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentLoadsOfAKeyShareOneCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+        Future<Object> originator = load(Priority.INTERACTIVE, blocking(started, release, () -> value));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(load(Priority.INTERACTIVE, Object::new));
+        }
+        awaitCount("coalesced", 5);
+        release.countDown();
+
+        assertThat(originator.get(5, TimeUnit.SECONDS)).isSameAs(value);
+        for (Future<Object> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(value);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("originated")).isEqualTo(1);
+
+        // Another key is a call of its own
+        assertThat(coalescer.load("other", Object::new)).isNotSameAs(value);
+    }
+
+    @Test
+    void aFailureReachesEveryWaiterAndEndsTheFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Upstream down");
+        Future<Object> originator = load(Priority.INTERACTIVE, blocking(started, release, () -> {
+            throw failure;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(load(Priority.BACKGROUND, Object::new));
+        }
+        awaitCount("coalesced", 3);
+        release.countDown();
+
+        assertThat(failureOf(originator)).isSameAs(failure);
+        for (Future<Object> follower : followers) {
+            assertThat(failureOf(follower)).isSameAs(failure);
+        }
+
+        // The next load calls again rather than getting the failure
+        Object value = new Object();
+        assertThat(coalescer.load("152", counted(() -> value))).isSameAs(value);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void anInteractiveLoadDoesNotWaitForABackgroundFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object background = new Object();
+        Future<Object> prefetch = load(Priority.BACKGROUND, blocking(started, release, () -> background));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Another background load joins the background flight...
+        Future<Object> backgroundFollower = load(Priority.BACKGROUND, Object::new);
+        awaitCount("coalesced", 1);
+
+        // ...an interactive one starts its own, which completes while the background flight is still running
+        Object interactive = new Object();
+        assertThat(load(Priority.INTERACTIVE, counted(() -> interactive)).get(5, TimeUnit.SECONDS)).isSameAs(interactive);
+        assertThat(prefetch).isNotDone();
+
+        release.countDown();
+        assertThat(prefetch.get(5, TimeUnit.SECONDS)).isSameAs(background);
+        assertThat(backgroundFollower.get(5, TimeUnit.SECONDS)).isSameAs(background);
+        assertThat(loads).hasValue(2);
+        assertThat(count("originated")).isEqualTo(2);
+    }
+
+    private Future<Object> load(Priority callerPriority, Supplier<Object> loader) {
+        return callers.submit(() -> {
+            priority.set(callerPriority);
+            return coalescer.load("152", counted(loader));
+        });
+    }
+
+    private Supplier<Object> counted(Supplier<Object> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        };
+    }
+
+    private static Supplier<Object> blocking(CountDownLatch started, CountDownLatch release, Supplier<Object> loader) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.get();
+        };
+    }
+
+    private static Throwable failureOf(Future<Object> caller) {
+        Throwable thrown = catchThrowable(() -> caller.get(5, TimeUnit.SECONDS));
+        assertThat(thrown).isInstanceOf(ExecutionException.class);
+        return thrown.getCause();
+    }
+
+    private void awaitCount(String type, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (count(type) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(type)).isEqualTo(expected);
+    }
+
+    private double count(String type) {
+        return meterRegistry.get("apifootball.loads").tag("type", type).counter().count();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryUpdatedEvent;
+import com.example.footballapi.controller.StandingsFeedController;
+import com.example.footballapi.exception.GlobalExceptionHandler;
+import com.example.footballapi.exception.UpstreamUnavailableException;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.model.TeamRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StandingsChangeFeedTest {
+
+    private static final int BUFFER_SIZE = 8;
+
+    private final FootballApiService footballApiService = mock(FootballApiService.class);
+    private final StandingsChangeFeed feed = new StandingsChangeFeed(footballApiService, new ObjectMapper());
+    private final StandingsTable table = table(25, 24, 22);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(feed, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(feed, "heartbeat", Duration.ofHours(1));
+        when(footballApiService.findLeagueId("England", "Premier League")).thenReturn("152");
+        when(footballApiService.getStandingsTable("152")).thenReturn(table);
+        when(footballApiService.findTeamRow("England", "Premier League", "Chelsea"))
+                .thenReturn(new TeamRow("152", table, 1));
+        when(footballApiService.findTeamRow("England", "Premier League", "Arsenal"))
+                .thenReturn(new TeamRow("152", table, 0));
+    }
+
+    @Test
+    void updatesCarryOnlyTheChangedRows() {
+        List<ServerSentEvent<String>> league = new CopyOnWriteArrayList<>();
+        List<ServerSentEvent<String>> chelsea = new CopyOnWriteArrayList<>();
+        List<ServerSentEvent<String>> arsenal = new CopyOnWriteArrayList<>();
+        Disposable leagueSubscription = feed.subscribe("England", "Premier League", null).subscribe(league::add);
+        Disposable chelseaSubscription = feed.subscribe("England", "Premier League", "Chelsea").subscribe(chelsea::add);
+        Disposable arsenalSubscription = feed.subscribe("England", "Premier League", "Arsenal").subscribe(arsenal::add);
+
+        assertThat(league).singleElement().satisfies(event -> {
+            assertThat(event.event()).isEqualTo("snapshot");
+            assertThat(event.data()).contains("Arsenal", "Chelsea", "Liverpool");
+        });
+        assertThat(chelsea).singleElement().satisfies(event ->
+                assertThat(event.data()).contains("Chelsea").doesNotContain("Arsenal", "Liverpool"));
+
+        publish(table(25, 27, 22)); // Chelsea won a game
+        publish(table(25, 27, 22)); // A refresh without changes sends nothing
+
+        assertThat(league).hasSize(2).last().satisfies(event -> {
+            assertThat(event.event()).isEqualTo("update");
+            assertThat(event.data()).contains("Chelsea", "\"27\"").doesNotContain("Arsenal", "Liverpool");
+        });
+        assertThat(chelsea).hasSize(2).last().satisfies(event -> assertThat(event.data()).contains("Chelsea"));
+        assertThat(arsenal).hasSize(1); // Only its snapshot
+
+        leagueSubscription.dispose();
+        chelseaSubscription.dispose();
+        arsenalSubscription.dispose();
+    }
+
+    @Test
+    void aSubscriberThatDoesNotKeepUpIsDisconnectedAndTheOthersAreNot() {
+        List<Throwable> slowErrors = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ServerSentEvent<String>> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // Never requests anything, like a client that stopped reading
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                slowErrors.add(throwable);
+            }
+        };
+        feed.subscribe("England", "Premier League", null).subscribe(slow);
+        List<ServerSentEvent<String>> fast = new CopyOnWriteArrayList<>();
+        Disposable fastSubscription = feed.subscribe("England", "Premier League", null).subscribe(fast::add);
+
+        // Far more updates than the subscriber's queue and the operators after it can hold
+        int updates = 100;
+        for (int points = 26; points < 26 + updates; points++) {
+            publish(table(25, points, 22));
+        }
+
+        assertThat(slowErrors).singleElement()
+                .satisfies(e -> assertThat(e).isInstanceOf(IllegalStateException.class).hasMessageContaining("keeping up"));
+        assertThat(fast).hasSize(1 + updates);
+        fastSubscription.dispose();
+    }
+
+    @Test
+    void subscriptionFailuresAreAnsweredAsJsonWithTheHandlersHeaders() {
+        StandingsFeedController controller = new StandingsFeedController(feed, new GlobalExceptionHandler());
+
+        ResponseEntity<Object> response = controller.handleSubscriptionError(
+                new UpstreamUnavailableException("Circuit open", Duration.ofMillis(1500)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody()).asString().contains("Circuit open");
+
+        response = controller.handleSubscriptionError(new IllegalArgumentException("Unknown team"));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    private void publish(StandingsTable next) {
+        feed.onCacheEntryUpdated(new CacheEntryUpdatedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152", next));
+    }
+
+    private static StandingsTable table(int arsenalPoints, int chelseaPoints, int liverpoolPoints) {
+        return StandingsTable.builder().metadata("England", "152", "Premier League")
+                .addRow("141", "Arsenal", new int[] {1, 10, 8, 1, 1, 24, 6, arsenalPoints})
+                .addRow("2616", "Chelsea", new int[] {2, 10, 7, 3, 0, 20, 8, chelseaPoints})
+                .addRow("2621", "Liverpool", new int[] {3, 10, 7, 1, 2, 18, 9, liverpoolPoints})
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.dto.LeagueDTO;
+import com.example.footballapi.dto.RankedStandingDTO;
+import com.example.footballapi.model.StandingsTable;
+import com.example.footballapi.model.TeamRow;
+import com.example.footballapi.service.StandingsJsonWriter.Field;
+import com.example.footballapi.service.StandingsRankings.Sort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StandingsJsonWriterTest {
+
+    private static final int M = StandingsTable.MISSING;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StandingsJsonWriter writer = new StandingsJsonWriter(objectMapper);
+    private final StandingsTable table = StandingsTable.builder()
+            .metadata("England", "152", "Premier League")
+            .addRow("141", "Arsenal", new int[]{1, 38, 26, 6, 6, 88, 43, 84})
+            .addRow("3429", "Brighton & \"Hove\" Albion – Ümit", new int[]{2, M, 25, M, 5, 89, 31, 82})
+            .addRow("7", null, new int[]{3, 38, 20, 4, 14, M, 40, -1})
+            .build();
+
+    @Test
+    void rowsWithAllFieldsAreWrittenLikeTheDtos() throws IOException {
+        for (int row = 0; row < table.size(); row++) {
+            assertThat(new String(writer.writeRow(table, row, StandingsJsonWriter.ROW_FIELDS, true)))
+                    .isEqualTo(objectMapper.writeValueAsString(table.toDto(row)));
+        }
+    }
+
+    @Test
+    void pagesWithAllFieldsAreWrittenLikeTheDtos() throws IOException {
+        StandingsRankings.Ranking ranking = rankingsOf(table).rank("152", table);
+        for (Sort sort : Sort.values()) {
+            StandingsRankings.Page page = ranking.page(sort, 1, 10);
+            List<RankedStandingDTO> expected = new ArrayList<>();
+            for (int rank = page.from(); rank <= page.to(); rank++) {
+                int entry = ranking.entry(sort, rank);
+                int goalDifference = ranking.goalDifference(entry);
+                expected.add(new RankedStandingDTO(rank, ranking.table(entry).toDto(ranking.row(entry)),
+                        goalDifference == M ? null : goalDifference));
+            }
+            assertThat(expected).extracting(RankedStandingDTO::getGoalDifference).containsNull();
+            assertThat(new String(writer.writePage(page, StandingsJsonWriter.RANKED_FIELDS, true)))
+                    .isEqualTo(objectMapper.writeValueAsString(expected));
+        }
+        assertThat(new String(writer.writePage(ranking.page(Sort.POINTS, 4, 5), StandingsJsonWriter.RANKED_FIELDS, true)))
+                .isEqualTo("[]");
+    }
+
+    @Test
+    void projectionsWriteOnlyTheSelectedFieldsInDtoOrder() {
+        int fields = writer.parseFields(" overall_league_pts,TEAM_NAME , rank", true);
+        assertThat(fields).isEqualTo(Field.RANK.bit() | Field.TEAM_NAME.bit() | Field.POINTS.bit());
+
+        StandingsRankings.Page page = rankingsOf(table).rank("152", table).page(Sort.POINTS, 1, 1);
+        assertThat(new String(writer.writePage(page, fields)))
+                .isEqualTo("[{\"rank\":1,\"team_name\":\"Arsenal\",\"overall_league_PTS\":\"84\"}]");
+        assertThat(new String(writer.writeRow(table, 1, writer.parseFields("overall_league_payed,team_id", false))))
+                .isEqualTo("{\"team_id\":\"3429\",\"overall_league_payed\":\"\"}");
+        assertThat(writer.parseFields(null, false)).isEqualTo(StandingsJsonWriter.ROW_FIELDS, true);
+        assertThat(writer.parseFields(null, true)).isEqualTo(StandingsJsonWriter.RANKED_FIELDS, true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "team_name,", "team_name,,overall_league_PTS", "unknown", "rank", "goal_difference"})
+    void unknownOrEmptyFieldNamesAreRejected(String fields) {
+        // Rejected with 400 by the controllers' IllegalArgumentException handler
+        assertThatThrownBy(() -> writer.parseFields(fields, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Fields must be a comma-separated list of: country_name, league_id");
+    }
+
+    @Test
+    void onlyBodiesFromTheSizeThresholdThatShrinkAreGzipped() throws IOException {
+        ResponseCompression compression = new ResponseCompression(256);
+        assertThat(compression.gzip(new byte[255])).isNull();
+
+        byte[] json = "{\"team_name\":\"Arsenal\"},".repeat(20).getBytes();
+        byte[] gzip = compression.gzip(json);
+        assertThat(gzip).isNotNull().hasSizeLessThan(json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+
+        byte[] random = new byte[512];
+        new Random(1).nextBytes(random);
+        assertThat(compression.gzip(random)).isNull();
+    }
+
+    @Test
+    void onlyBodiesWithAllFieldsAreKept() {
+        ResponseBodyCache bodies = new ResponseBodyCache(objectMapper, writer, new ResponseCompression(256), 100);
+        StandingsRankings rankings = rankingsOf(table);
+        StandingsRankings.Page page = rankings.rank("152", table).page(Sort.POINTS, 1, 20);
+        TeamRow team = new TeamRow("152", table, 0);
+
+        assertThat(bodies.forPage(page, StandingsJsonWriter.RANKED_FIELDS, true))
+                .isSameAs(bodies.forPage(rankings.rank("152", table).page(Sort.POINTS, 1, 3), StandingsJsonWriter.RANKED_FIELDS, true));
+        assertThat(bodies.forTeamStanding(team, StandingsJsonWriter.ROW_FIELDS, true))
+                .isSameAs(bodies.forTeamStanding(team, StandingsJsonWriter.ROW_FIELDS, true));
+
+        int projection = writer.parseFields("team_name", true);
+        assertThat(bodies.forPage(page, projection, true)).isNotSameAs(bodies.forPage(page, projection, true));
+        int rowProjection = writer.parseFields("team_name", false);
+        assertThat(bodies.forTeamStanding(team, rowProjection, true)).isNotSameAs(bodies.forTeamStanding(team, rowProjection, true));
+
+        // A projection is only gzipped for a client that takes gzip, and a page has no entity tag
+        ResponseBodyCache eager = new ResponseBodyCache(objectMapper, writer, new ResponseCompression(0), 100);
+        assertThat(eager.forPage(page, projection, false)).satisfies(body -> {
+            assertThat(body.gzip()).isNull();
+            assertThat(body.eTag()).isNull();
+        });
+        assertThat(eager.forTeamStanding(team, rowProjection, false)).satisfies(body -> {
+            assertThat(body.gzip()).isNull();
+            assertThat(body.eTag()).isNotNull();
+        });
+        assertThat(eager.forPage(page, StandingsJsonWriter.RANKED_FIELDS, false).eTag()).isNull();
+
+        // A rebuilt ranking is encoded again
+        StandingsTable refreshed = StandingsTable.builder().metadata("England", "152", "Premier League")
+                .addRow("141", "Arsenal", new int[]{1, 38, 26, 6, 6, 88, 43, 85}).build();
+        ResponseBodyCache.Body body = bodies.forPage(rankings.rank("152", refreshed).page(Sort.POINTS, 1, 20),
+                StandingsJsonWriter.RANKED_FIELDS, true);
+        assertThat(new String(body.json())).contains("\"85\"").doesNotContain("\"84\"");
+    }
+
+    @Test
+    void bodiesAreDroppedWithTheirCacheEntry() {
+        ResponseBodyCache bodies = new ResponseBodyCache(objectMapper, writer, new ResponseCompression(256), 100);
+        StandingsRankings rankings = rankingsOf(table);
+        StandingsTable other = StandingsTable.builder().metadata("France", "168", "Ligue 1")
+                .addRow("80", "Paris", new int[]{1, 34, 22, 10, 2, 89, 35, 76}).build();
+        TeamRow team = new TeamRow("152", table, 0);
+        TeamRow otherTeam = new TeamRow("168", other, 0);
+        StandingsRankings.Page page = rankings.rank("152", table).page(Sort.POINTS, 1, 20);
+        StandingsRankings.Page otherPage = rankings.rank("168", other).page(Sort.POINTS, 1, 20);
+        List<LeagueDTO> leagues = List.of();
+
+        ResponseBodyCache.Body teamBody = bodies.forTeamStanding(team, StandingsJsonWriter.ROW_FIELDS, true);
+        ResponseBodyCache.Body otherTeamBody = bodies.forTeamStanding(otherTeam, StandingsJsonWriter.ROW_FIELDS, true);
+        ResponseBodyCache.Body pageBody = bodies.forPage(page, StandingsJsonWriter.RANKED_FIELDS, true);
+        ResponseBodyCache.Body otherPageBody = bodies.forPage(otherPage, StandingsJsonWriter.RANKED_FIELDS, true);
+        ResponseBodyCache.Body leaguesBody = bodies.forLeagues("44", leagues);
+
+        bodies.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152"));
+        assertThat(bodies.forTeamStanding(team, StandingsJsonWriter.ROW_FIELDS, true)).isNotSameAs(teamBody);
+        assertThat(bodies.forPage(page, StandingsJsonWriter.RANKED_FIELDS, true)).isNotSameAs(pageBody);
+        assertThat(bodies.forTeamStanding(otherTeam, StandingsJsonWriter.ROW_FIELDS, true)).isSameAs(otherTeamBody);
+        assertThat(bodies.forPage(otherPage, StandingsJsonWriter.RANKED_FIELDS, true)).isSameAs(otherPageBody);
+        assertThat(bodies.forLeagues("44", leagues)).isSameAs(leaguesBody);
+
+        bodies.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.LEAGUES_CACHE, "44"));
+        assertThat(bodies.forLeagues("44", leagues)).isNotSameAs(leaguesBody);
+
+        bodies.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, null));
+        assertThat(bodies.forTeamStanding(otherTeam, StandingsJsonWriter.ROW_FIELDS, true)).isNotSameAs(otherTeamBody);
+    }
+
+    /**
+     * Rankings that keep what they build from {@code cached}, as they do for tables the standings cache holds.
+     */
+    private static StandingsRankings rankingsOf(StandingsTable... cached) {
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        for (StandingsTable table : cached) {
+            cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE).put(table.getLeagueId(), table);
+        }
+        return new StandingsRankings(cacheManager);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.CacheConfig;
+import com.example.footballapi.config.CacheEntryRemovedEvent;
+import com.example.footballapi.config.CacheEntryUpdatedEvent;
+import com.example.footballapi.model.StandingsTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StandingsRankingsTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final Cache standings = cacheManager.getCache(CacheConfig.STANDINGS_BY_LEAGUE_CACHE);
+    private final StandingsRankings rankings = new StandingsRankings(cacheManager);
+
+    @Test
+    void rankingsOfEvictedTablesAreDropped() {
+        StandingsTable premierLeague = table("152", 84, 82);
+        StandingsTable ligue1 = table("168", 80);
+        standings.put("152", premierLeague);
+        standings.put("168", ligue1);
+        rankings.onCacheEntryUpdated(new CacheEntryUpdatedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152", premierLeague));
+        rankings.onCacheEntryUpdated(new CacheEntryUpdatedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "168", ligue1));
+        StandingsRankings.Ranking ranked = rankings.rank("152", premierLeague);
+        StandingsRankings.Ranking leaderboard = rankings.leaderboard(List.of(premierLeague, ligue1));
+        assertThat(rankings.rank("152", premierLeague)).isSameAs(ranked);
+        assertThat(rankings.leaderboard(List.of(premierLeague, ligue1))).isSameAs(leaderboard);
+
+        rankings.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.LEAGUES_CACHE, "152"));
+        assertThat(rankings.rank("152", premierLeague)).isSameAs(ranked);
+
+        rankings.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, "152"));
+        assertThat(rankings.rank("152", premierLeague)).isNotSameAs(ranked);
+        assertThat(rankings.leaderboard(List.of(premierLeague, ligue1))).isNotSameAs(leaderboard);
+
+        StandingsRankings.Ranking ligue1Ranked = rankings.rank("168", ligue1);
+        rankings.onCacheEntryRemoved(new CacheEntryRemovedEvent(CacheConfig.STANDINGS_BY_LEAGUE_CACHE, null));
+        assertThat(rankings.rank("168", ligue1)).isNotSameAs(ligue1Ranked);
+    }
+
+    @Test
+    void rankingsAreOnlyKeptWhileTheCacheHoldsTheirTables() {
+        StandingsTable premierLeague = table("152", 84, 82);
+        StandingsTable ligue1 = table("168", 80);
+        standings.put("168", ligue1);
+
+        // Read just before it was evicted: the ranking answers this query but is not kept
+        StandingsRankings.Ranking evicted = rankings.rank("152", premierLeague);
+        assertThat(evicted.size()).isEqualTo(2);
+        assertThat(rankings.rank("152", premierLeague)).isNotSameAs(evicted);
+        StandingsRankings.Ranking partial = rankings.leaderboard(List.of(premierLeague, ligue1));
+        assertThat(rankings.leaderboard(List.of(premierLeague, ligue1))).isNotSameAs(partial);
+
+        standings.put("152", premierLeague);
+        StandingsRankings.Ranking ranked = rankings.rank("152", premierLeague);
+        assertThat(rankings.rank("152", premierLeague)).isSameAs(ranked);
+        StandingsRankings.Ranking leaderboard = rankings.leaderboard(List.of(premierLeague, ligue1));
+        assertThat(rankings.leaderboard(List.of(premierLeague, ligue1))).isSameAs(leaderboard);
+    }
+
+    private static StandingsTable table(String leagueId, int... points) {
+        StandingsTable.Builder builder = StandingsTable.builder().metadata("England", leagueId, "League " + leagueId);
+        for (int i = 0; i < points.length; i++) {
+            int[] cells = new int[StandingsTable.Builder.NUMERIC_CELLS];
+            cells[0] = i + 1;
+            cells[StandingsTable.Builder.NUMERIC_CELLS - 1] = points[i];
+            builder.addRow(leagueId + i, "Team " + leagueId + i, cells);
+        }
+        return builder.build();
+    }
+}
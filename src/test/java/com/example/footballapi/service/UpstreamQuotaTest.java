@@ -0,0 +1,245 @@
+package com.example.footballapi.service;
+
+import com.example.footballapi.config.UpstreamCircuitBreaker;
+import com.example.footballapi.config.UpstreamRateLimitInterceptor;
+import com.example.footballapi.config.UpstreamRateLimiter;
+import com.example.footballapi.exception.ExternalApiException;
+import com.example.footballapi.model.StandingsTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Upstream calls of {@link ApiFootballClient} through the rate limiter, against a local stub that
+ * enforces a request quota the way APIFootball does (429 with {@code Retry-After} when exceeded).
+ */
+class UpstreamQuotaTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private QuotaStub stub;
+
+    @AfterEach
+    void stop() {
+        callers.shutdownNow();
+        stub.stop();
+    }
+
+    @Test
+    void interactiveCallsAreAdmittedBeforeQueuedBackgroundCalls() throws Exception {
+        stub = new QuotaStub(2, 3);
+        UpstreamRateLimiter rateLimiter = rateLimiter(2, 2, Duration.ofSeconds(2), Duration.ofSeconds(10));
+        ApiFootballClient client = client(rateLimiter);
+
+        client.fetchStandings("1"); // Leaves the bucket below the background reserve
+        CompletableFuture<Long> background2 = call(() -> rateLimiter.background(() -> client.fetchStandings("2")));
+        CompletableFuture<Long> background3 = call(() -> rateLimiter.background(() -> client.fetchStandings("3")));
+        Thread.sleep(150); // Both background calls are now waiting for a permit
+
+        long askedAt = System.nanoTime();
+        // The same key as a queued background refresh, which it must not wait for, and a key of its own
+        CompletableFuture<Long> interactive2 = call(() -> client.fetchStandings("2"));
+        CompletableFuture<Long> interactive4 = call(() -> client.fetchStandings("4"));
+
+        assertThat(Duration.ofNanos(interactive2.get(5, TimeUnit.SECONDS) - askedAt)).isLessThan(Duration.ofSeconds(1));
+        assertThat(Duration.ofNanos(interactive4.get(5, TimeUnit.SECONDS) - askedAt)).isLessThan(Duration.ofSeconds(1));
+        long firstBackground = Math.min(background2.get(10, TimeUnit.SECONDS), background3.get(10, TimeUnit.SECONDS));
+        assertThat(firstBackground).isGreaterThan(Math.max(interactive2.join(), interactive4.join()));
+
+        assertThat(stub.served()).containsExactlyInAnyOrder("1", "2", "4", "2", "3");
+        assertThat(stub.rejected()).isZero();
+    }
+
+    @Test
+    void backgroundCallsAreRejectedPastTheirWaitLimit() throws Exception {
+        stub = new QuotaStub(1, 2);
+        UpstreamRateLimiter rateLimiter = rateLimiter(1, 2, Duration.ofSeconds(2), Duration.ofMillis(200));
+        ApiFootballClient client = client(rateLimiter);
+
+        client.fetchStandings("1");
+        long askedAt = System.nanoTime();
+        assertThatThrownBy(() -> rateLimiter.background(() -> client.fetchStandings("2")))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("budget");
+        assertThat(Duration.ofNanos(System.nanoTime() - askedAt)).isLessThan(Duration.ofSeconds(1));
+
+        // The reserve is still there for an interactive miss
+        assertThat(client.fetchStandings("3").isEmpty()).isFalse();
+        assertThat(stub.served()).containsExactly("1", "3");
+        assertThat(stub.rejected()).isZero();
+    }
+
+    @Test
+    void mixedLoadStaysUnderTheUpstreamQuota() throws Exception {
+        // The limiter runs at half the stub's quota, so requests it grants may arrive at the stub bunched up
+        stub = new QuotaStub(20, 8);
+        UpstreamRateLimiter rateLimiter = rateLimiter(10, 4, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        ApiFootballClient client = client(rateLimiter);
+
+        List<CompletableFuture<Long>> calls = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String leagueId = Integer.toString(i % 40);
+            calls.add(i % 3 == 0
+                    ? call(() -> rateLimiter.background(() -> client.fetchStandings(leagueId)))
+                    : call(() -> client.fetchStandings(leagueId)));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertThat(stub.rejected()).isZero();
+        assertThat(stub.served()).hasSizeBetween(40, 60); // Concurrent calls for a league may share one request
+    }
+
+    @Test
+    void unreachableUpstreamIsReportedAsAnExternalApiFailure() throws Exception {
+        stub = new QuotaStub(1, 1);
+        UpstreamRateLimiter rateLimiter = rateLimiter(10, 10, Duration.ofSeconds(2), Duration.ofSeconds(2));
+        ApiFootballClient client = client(rateLimiter);
+        stub.stop(); // Nothing listens on its port any more
+
+        assertThatThrownBy(() -> client.fetchStandings("1"))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageStartingWith("Failed to connect to standings API");
+        assertThatThrownBy(() -> client.fetchLeagues("41"))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageStartingWith("Failed to connect to leagues API");
+        assertThatThrownBy(client::fetchCountries)
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageStartingWith("Failed to connect to countries API");
+        assertThatThrownBy(client::fetchLiveLeagueIds)
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageStartingWith("Failed to connect to live events API");
+    }
+
+    @Test
+    void upstreamClientErrorsArePassedOn() throws Exception {
+        stub = new QuotaStub(0.001, 1);
+        UpstreamRateLimiter rateLimiter = rateLimiter(10, 10, Duration.ofSeconds(2), Duration.ofSeconds(2));
+        ApiFootballClient client = client(rateLimiter);
+
+        client.fetchStandings("1");
+        assertThatThrownBy(() -> client.fetchStandings("2"))
+                .isInstanceOfSatisfying(HttpClientErrorException.class,
+                        e -> assertThat(e.getStatusCode().value()).isEqualTo(429));
+        assertThat(stub.rejected()).isEqualTo(1);
+    }
+
+    private CompletableFuture<Long> call(Supplier<StandingsTable> fetch) {
+        return CompletableFuture.supplyAsync(() -> {
+            assertThat(fetch.get().isEmpty()).isFalse();
+            return System.nanoTime();
+        }, callers);
+    }
+
+    private UpstreamRateLimiter rateLimiter(double requestsPerSecond, int burst, Duration interactiveMaxWait,
+                                            Duration backgroundMaxWait) {
+        return new UpstreamRateLimiter(meterRegistry, true, requestsPerSecond, burst, 0.5,
+                interactiveMaxWait, backgroundMaxWait, Duration.ofSeconds(1));
+    }
+
+    private ApiFootballClient client(UpstreamRateLimiter rateLimiter) {
+        UpstreamCircuitBreaker circuitBreaker = new UpstreamCircuitBreaker(meterRegistry, false, 50, 80,
+                Duration.ofSeconds(5), 20, 10, Duration.ofSeconds(30), 3);
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        restTemplate.getInterceptors().add(new UpstreamRateLimitInterceptor(rateLimiter, circuitBreaker));
+        ApiFootballClient client = new ApiFootballClient(restTemplate, new ObjectMapper(), meterRegistry, rateLimiter);
+        ReflectionTestUtils.setField(client, "apiUrlBase", stub.url());
+        ReflectionTestUtils.setField(client, "apiKey", "test-key");
+        return client;
+    }
+
+    /**
+     * Serves {@code get_standings} under a token-bucket quota of {@code requestsPerSecond} with {@code burst}.
+     */
+    private static final class QuotaStub {
+
+        private final HttpServer server;
+        private final double permitsPerNano;
+        private final double burst;
+        private final List<String> served = new ArrayList<>();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        QuotaStub(double requestsPerSecond, int burst) throws IOException {
+            this.permitsPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.tokens = burst;
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            this.server.setExecutor(Executors.newCachedThreadPool());
+            this.server.createContext("/", this::handle);
+            this.server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        }
+
+        synchronized List<String> served() {
+            return List.copyOf(served);
+        }
+
+        int rejected() {
+            return rejected.get();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String leagueId = exchange.getRequestURI().getQuery().replaceAll(".*league_id=([^&]*).*", "$1");
+            if (!admit(leagueId)) {
+                rejected.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = ("[{\"country_name\":\"England\",\"league_id\":\"" + leagueId + "\",\"league_name\":\"League "
+                    + leagueId + "\",\"team_id\":\"1\",\"team_name\":\"Team\",\"overall_league_position\":\"1\","
+                    + "\"overall_league_PTS\":\"3\"}]").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private synchronized boolean admit(String leagueId) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            served.add(leagueId);
+            return true;
+        }
+    }
+}